@@ -0,0 +1,74 @@
+package com.platzi.pizza.benchmark;
+
+import com.platzi.pizza.persistence.entity.PizzaEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de la auditoría de pizzas. AuditPizzaListener ya no hace nada al cargar (solo escucha
+ * los commits), así que loadMenu mide el camino de carga que antes pagaba un clon por entidad y
+ * updatePrice mide el diff de campos y el envío al diario que ocurren en cada commit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditListenerBenchmark {
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private int nextPizza;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PizzaEntity> loadMenu() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT p FROM PizzaEntity p", PizzaEntity.class).getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public PizzaEntity updatePrice() {
+        int idPizza = 1 + (nextPizza++ % BenchmarkData.PIZZAS);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            PizzaEntity pizza = entityManager.find(PizzaEntity.class, idPizza);
+            pizza.setPrice(pizza.getPrice() >= 40 ? 10.0 : pizza.getPrice() + 0.5);
+            entityManager.getTransaction().commit();
+            return pizza;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.platzi.pizza.benchmark;
+
+import com.platzi.pizza.PlatziPezzeriaApplication;
+import com.platzi.pizza.persistence.repository.OrderSummaryRepository;
+import com.platzi.pizza.service.menu.IngredientIndex;
+import com.platzi.pizza.service.menu.MenuCache;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Arranca la aplicación sin servidor web contra H2 (perfil "benchmark") y la llena con datos
+ * de tamaño realista. Cada clase de benchmark levanta su propio contexto en su @Setup.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PlatziPezzeriaApplication.class)
+                .profiles("benchmark")
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run();
+
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class));
+
+        // Los datos se cargan después del arranque: se calculan los resúmenes y se vuelven a armar las estructuras en memoria.
+        context.getBean(OrderSummaryRepository.class).insertMissing();
+        MenuCache menuCache = context.getBean(MenuCache.class);
+        menuCache.reload();
+        context.getBean(IngredientIndex.class).rebuild(menuCache.current());
+        return context;
+    }
+}
@@ -0,0 +1,125 @@
+package com.platzi.pizza.benchmark;
+
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderItemEntity;
+import com.platzi.pizza.persistence.entity.PizzaEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos de prueba deterministas (misma semilla en cada corrida) para que los resultados
+ * sean comparables entre versiones.
+ */
+final class BenchmarkData {
+    static final int PIZZAS = 40;
+    static final int CUSTOMERS = 500;
+    static final int ORDERS = 5_000;
+    static final int MAX_ITEMS_PER_ORDER = 6;
+
+    private static final String[] INGREDIENTS = {
+            "jamón", "piña", "pepperoni", "champiñones", "cebolla", "pimiento", "aceitunas", "albahaca",
+            "tomate", "mozzarella", "queso de cabra", "chorizo", "tocino", "espinaca", "jalapeño", "pollo"};
+    private static final String[] METHODS = {"D", "C", "S"};
+
+    private BenchmarkData() {
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+
+        List<Object[]> pizzas = new ArrayList<>();
+        for (PizzaEntity pizza : pizzas(random)) {
+            pizzas.add(new Object[]{pizza.getIdPizza(), pizza.getName(), pizza.getDescription(), pizza.getPrice(),
+                    pizza.getVegetarian(), pizza.getVegan(), pizza.getAvailable(), LocalDateTime.now()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pizza (id_pizza, name, description, price, vegetarian, vegan, available, created_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", pizzas);
+
+        List<Object[]> customers = new ArrayList<>();
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            String phone = "55" + (10000000 + i);
+            customers.add(new Object[]{String.valueOf(100000 + i), "Cliente " + i, "Calle " + i + " #" + random.nextInt(200),
+                    "cliente" + i + "@pizzeria.com", phone, phone});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customer (id_customer, name, address, email, phone_number, phone_lookup) VALUES (?, ?, ?, ?, ?, ?)", customers);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(90);
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int id = 1; id <= ORDERS; id++) {
+            int count = 1 + random.nextInt(MAX_ITEMS_PER_ORDER);
+            double total = 0;
+            for (int item = 1; item <= count; item++) {
+                double quantity = 0.5 * (1 + random.nextInt(4));
+                double price = Math.round(quantity * (10 + random.nextInt(20)) * 100) / 100.0;
+                total += price;
+                items.add(new Object[]{id, item, 1 + random.nextInt(PIZZAS), quantity, price});
+            }
+            orders.add(new Object[]{id, String.valueOf(100001 + random.nextInt(CUSTOMERS)),
+                    start.plusMinutes(id * 25L), Math.round(total * 100) / 100.0, METHODS[random.nextInt(METHODS.length)]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pizza_order (id_order, id_customer, date, total, method) VALUES (?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_item (id_order, id_item, id_pizza, quantity, price) VALUES (?, ?, ?, ?, ?)", items);
+    }
+
+    /**
+     * Menú de PIZZAS pizzas con descripciones de tres a cinco ingredientes.
+     */
+    static List<PizzaEntity> pizzas(Random random) {
+        List<PizzaEntity> pizzas = new ArrayList<>(PIZZAS);
+        for (int id = 1; id <= PIZZAS; id++) {
+            StringBuilder description = new StringBuilder("Pizza con");
+            int ingredients = 3 + random.nextInt(3);
+            for (int i = 0; i < ingredients; i++) {
+                description.append(i == 0 ? " " : ", ").append(INGREDIENTS[random.nextInt(INGREDIENTS.length)]);
+            }
+
+            PizzaEntity pizza = new PizzaEntity();
+            pizza.setIdPizza(id);
+            pizza.setName("Pizza " + id);
+            pizza.setDescription(description.toString());
+            pizza.setPrice(10 + random.nextInt(3000) / 100.0);
+            pizza.setVegetarian(random.nextInt(3) == 0);
+            pizza.setVegan(random.nextInt(6) == 0);
+            pizza.setAvailable(random.nextInt(10) != 0);
+            pizzas.add(pizza);
+        }
+        return pizzas;
+    }
+
+    /**
+     * Orden en memoria con sus items y la pizza de cada item, ya cargados.
+     */
+    static OrderEntity order(int idOrder, List<PizzaEntity> menu, Random random) {
+        OrderEntity order = new OrderEntity();
+        order.setIdOrder(idOrder);
+        order.setIdCustomer(String.valueOf(100001 + random.nextInt(CUSTOMERS)));
+        order.setDate(LocalDateTime.now().minusMinutes(random.nextInt(100_000)));
+        order.setMethod(METHODS[random.nextInt(METHODS.length)]);
+        order.setAdditionalNotes(random.nextBoolean() ? "Sin cubiertos, tocar el timbre dos veces" : null);
+
+        int count = 1 + random.nextInt(MAX_ITEMS_PER_ORDER);
+        List<OrderItemEntity> items = new ArrayList<>(count);
+        double total = 0;
+        for (int i = 1; i <= count; i++) {
+            PizzaEntity pizza = menu.get(random.nextInt(menu.size()));
+            OrderItemEntity item = new OrderItemEntity();
+            item.setIdOrder(idOrder);
+            item.setIdItem(i);
+            item.setIdPizza(pizza.getIdPizza());
+            item.setPizza(pizza);
+            item.setOrder(order);
+            item.setQuantity(0.5 * (1 + random.nextInt(4)));
+            item.setPrice(Math.round(item.getQuantity() * pizza.getPrice() * 100) / 100.0);
+            total += item.getPrice();
+            items.add(item);
+        }
+        order.setItems(items);
+        order.setTotal(Math.round(total * 100) / 100.0);
+        return order;
+    }
+}
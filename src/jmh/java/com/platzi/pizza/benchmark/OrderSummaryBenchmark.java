@@ -0,0 +1,64 @@
+package com.platzi.pizza.benchmark;
+
+import com.platzi.pizza.persistence.projection.OrderSumary;
+import com.platzi.pizza.persistence.repository.OrderRepository;
+import com.platzi.pizza.service.OrderSummaryStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumen de una orden: el JOIN de cuatro tablas de OrderRepository.findSummary contra la
+ * lectura por clave de order_summary (que se llena al cargar los datos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderSummaryBenchmark {
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private OrderSummaryStore orderSummaryStore;
+    private int nextOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        orderRepository = context.getBean(OrderRepository.class);
+        orderSummaryStore = context.getBean(OrderSummaryStore.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderSumary findSummary() {
+        return orderRepository.findSummary(nextOrderId());
+    }
+
+    @Benchmark
+    public OrderSumary summaryStore() {
+        return orderSummaryStore.get(nextOrderId());
+    }
+
+    private int nextOrderId() {
+        nextOrder = nextOrder % BenchmarkData.ORDERS + 1;
+        return nextOrder;
+    }
+}
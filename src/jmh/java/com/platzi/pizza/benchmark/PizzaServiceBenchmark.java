@@ -0,0 +1,85 @@
+package com.platzi.pizza.benchmark;
+
+import com.platzi.pizza.persistence.entity.PizzaEntity;
+import com.platzi.pizza.persistence.projection.PizzaListItem;
+import com.platzi.pizza.service.PizzaService;
+import com.platzi.pizza.service.dto.PizzaDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas de PizzaService: las que se responden desde la foto del menú y el índice de
+ * ingredientes, y las que todavía van a la base de datos (H2 en modo MySQL).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PizzaServiceBenchmark {
+    private ConfigurableApplicationContext context;
+    private PizzaService pizzaService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        pizzaService = context.getBean(PizzaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<PizzaListItem> getAll() {
+        return pizzaService.getAll(1, 10);
+    }
+
+    @Benchmark
+    public Page<PizzaDto> getAvailableByPrice() {
+        return pizzaService.getAvailable(1, 10, "price", "ASC");
+    }
+
+    @Benchmark
+    public Optional<PizzaDto> getByPizzaName() {
+        return pizzaService.getByPizzaName("pizza 17");
+    }
+
+    @Benchmark
+    public List<PizzaDto> getCheapest() {
+        return pizzaService.getCheapest(20.0);
+    }
+
+    @Benchmark
+    public List<PizzaDto> getByIngredients() {
+        return pizzaService.getByIngredients(List.of("queso"), List.of("piña", "jalapeño"));
+    }
+
+    @Benchmark
+    public PizzaEntity getById() {
+        return pizzaService.get(17);
+    }
+
+    @Benchmark
+    public int countVegan() {
+        return pizzaService.countVegan();
+    }
+}
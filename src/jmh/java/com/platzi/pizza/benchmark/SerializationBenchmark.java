@@ -0,0 +1,66 @@
+package com.platzi.pizza.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.PizzaEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con Jackson de las respuestas más comunes: el menú completo y listados de
+ * órdenes con sus items y pizzas. Usa el mismo ObjectMapper que arma Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "200"})
+    public int orders;
+
+    private ObjectMapper objectMapper;
+    private List<PizzaEntity> menu;
+    private List<OrderEntity> orderList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Random random = new Random(42);
+        menu = BenchmarkData.pizzas(random);
+        orderList = new ArrayList<>(orders);
+        for (int id = 1; id <= orders; id++) {
+            orderList.add(BenchmarkData.order(id, menu, random));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeMenu() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(menu);
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderList);
+    }
+}
@@ -0,0 +1,57 @@
+package com.platzi.pizza.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imprime la tabla de resultados por endpoint y la guarda también como CSV para comparar corridas.
+ */
+final class LoadReport {
+    private static final String HEADER = "endpoint,requests,throughput_rps,error_rate,p50_ms,p99_ms,p999_ms,max_ms";
+
+    private LoadReport() {
+    }
+
+    static void print(Map<String, OpenLoadGenerator.EndpointStats> stats, PrintStream out) {
+        out.printf(Locale.ROOT, "%-36s %9s %10s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        stats.forEach((name, endpoint) -> {
+            Histogram latency = endpoint.latency;
+            out.printf(Locale.ROOT, "%-36s %9d %10.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f%n",
+                    name, latency.getTotalCount(), throughput(endpoint), 100 * errorRate(endpoint),
+                    millis(latency, 50), millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1e6);
+        });
+    }
+
+    static void writeCsv(Map<String, OpenLoadGenerator.EndpointStats> stats, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        stats.forEach((name, endpoint) -> lines.add(String.format(Locale.ROOT, "%s,%d,%.2f,%.5f,%.3f,%.3f,%.3f,%.3f",
+                name, endpoint.latency.getTotalCount(), throughput(endpoint), errorRate(endpoint),
+                millis(endpoint.latency, 50), millis(endpoint.latency, 99), millis(endpoint.latency, 99.9),
+                endpoint.latency.getMaxValue() / 1e6)));
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines);
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static double throughput(OpenLoadGenerator.EndpointStats endpoint) {
+        return endpoint.latency.getTotalCount() / (endpoint.elapsedNanos / 1e9);
+    }
+
+    private static double errorRate(OpenLoadGenerator.EndpointStats endpoint) {
+        long total = endpoint.latency.getTotalCount();
+        return total == 0 ? 0 : (double) endpoint.errors.sum() / total;
+    }
+}
@@ -0,0 +1,82 @@
+package com.platzi.pizza.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Llena la base embebida con el volumen pedido de pizzas, clientes y órdenes. Siempre usa la
+ * misma semilla para que dos corridas con los mismos volúmenes vean los mismos datos.
+ */
+final class LoadTestData {
+    private static final String[] INGREDIENTS = {
+            "jamón", "piña", "pepperoni", "champiñones", "cebolla", "pimiento", "aceitunas", "albahaca",
+            "tomate", "mozzarella", "queso de cabra", "chorizo", "tocino", "espinaca", "jalapeño", "pollo"};
+    private static final String[] METHODS = {"D", "C", "S"};
+    private static final int BATCH = 1_000;
+
+    private LoadTestData() {
+    }
+
+    static String customerId(int index) {
+        return String.valueOf(100000 + index);
+    }
+
+    static String phone(int index) {
+        return "55" + (10000000 + index);
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, LoadTestSettings settings) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> pizzas = new ArrayList<>();
+        for (int id = 1; id <= settings.pizzas(); id++) {
+            StringBuilder description = new StringBuilder("Pizza con");
+            int ingredients = 3 + random.nextInt(3);
+            for (int i = 0; i < ingredients; i++) {
+                description.append(i == 0 ? " " : ", ").append(INGREDIENTS[random.nextInt(INGREDIENTS.length)]);
+            }
+            pizzas.add(new Object[]{id, "Pizza " + id, description.toString(), 10 + random.nextInt(3000) / 100.0,
+                    random.nextInt(3) == 0, random.nextInt(6) == 0, random.nextInt(10) != 0, now});
+        }
+        batch(jdbcTemplate, "INSERT INTO pizza (id_pizza, name, description, price, vegetarian, vegan, available, created_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", pizzas);
+
+        List<Object[]> customers = new ArrayList<>();
+        for (int i = 1; i <= settings.customers(); i++) {
+            customers.add(new Object[]{customerId(i), "Cliente " + i, "Calle " + i, "cliente" + i + "@pizzeria.com", phone(i), phone(i)});
+        }
+        batch(jdbcTemplate, "INSERT INTO customer (id_customer, name, address, email, phone_number, phone_lookup) VALUES (?, ?, ?, ?, ?, ?)", customers);
+
+        // Las órdenes se reparten en los últimos 30 días, con el 10 % en el día de hoy.
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int id = 1; id <= settings.orders(); id++) {
+            int count = 1 + random.nextInt(5);
+            double total = 0;
+            for (int item = 1; item <= count; item++) {
+                double quantity = 0.5 * (1 + random.nextInt(4));
+                double price = Math.round(quantity * (10 + random.nextInt(20)) * 100) / 100.0;
+                total += price;
+                items.add(new Object[]{id, item, 1 + random.nextInt(settings.pizzas()), quantity, price});
+            }
+            LocalDateTime date = random.nextInt(10) == 0
+                    ? now.toLocalDate().atStartOfDay().plusSeconds(random.nextInt(Math.max(1, now.toLocalTime().toSecondOfDay())))
+                    : now.minusDays(1 + random.nextInt(30)).minusSeconds(random.nextInt(86_400));
+            orders.add(new Object[]{id, customerId(1 + random.nextInt(settings.customers())), date,
+                    Math.round(total * 100) / 100.0, METHODS[random.nextInt(METHODS.length)]});
+        }
+        batch(jdbcTemplate, "INSERT INTO pizza_order (id_order, id_customer, date, total, method) VALUES (?, ?, ?, ?, ?)", orders);
+        batch(jdbcTemplate, "INSERT INTO order_item (id_order, id_item, id_pizza, quantity, price) VALUES (?, ?, ?, ?, ?)", items);
+    }
+
+    private static void batch(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH, rows.size())));
+        }
+    }
+}
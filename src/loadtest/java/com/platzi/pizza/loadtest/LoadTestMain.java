@@ -0,0 +1,63 @@
+package com.platzi.pizza.loadtest;
+
+import com.platzi.pizza.PlatziPezzeriaApplication;
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.repository.OrderSummaryRepository;
+import com.platzi.pizza.service.cache.CustomerLookupCache;
+import com.platzi.pizza.service.menu.IngredientIndex;
+import com.platzi.pizza.service.menu.MenuCache;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Levanta la aplicación en un puerto libre contra H2 en memoria (perfil "loadtest"), la llena de
+ * datos y le manda la mezcla de tráfico de {@link Scenario#lunchRush}. No necesita red ni MySQL.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        String profiles = settings.profiles().isBlank() ? "loadtest" : "loadtest," + settings.profiles();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PlatziPezzeriaApplication.class)
+                .profiles(profiles.split(","))
+                .run(args)) {
+            seed(context, settings);
+
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            System.out.printf("Load test against %s: %.0f req/s, warmup %s, duration %s%n",
+                    baseUri, settings.rate(), settings.warmup(), settings.duration());
+
+            Map<String, OpenLoadGenerator.EndpointStats> stats =
+                    new OpenLoadGenerator(baseUri, Scenario.lunchRush(settings), settings).run();
+
+            LoadReport.print(stats, System.out);
+            Path csv = Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/results.csv"));
+            LoadReport.writeCsv(stats, csv);
+            System.out.println("Report written to " + csv.toAbsolutePath());
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context, LoadTestSettings settings) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LoadTestData.seed(jdbcTemplate, settings);
+
+        // Los datos llegan después del arranque: se adelanta el generador de ids, se calculan los resúmenes
+        // y se rearman las estructuras en memoria.
+        jdbcTemplate.update("UPDATE id_generator SET next_val = (SELECT COALESCE(MAX(id_order), 0) + ? + 1 FROM pizza_order) " +
+                "WHERE sequence_name = 'pizza_order'", OrderEntity.ID_ALLOCATION_SIZE);
+        context.getBean(OrderSummaryRepository.class).insertMissing();
+        MenuCache menuCache = context.getBean(MenuCache.class);
+        menuCache.reload();
+        context.getBean(IngredientIndex.class).rebuild(menuCache.current());
+        context.getBean(CustomerLookupCache.class).rebuildBloomFilter();
+    }
+}
@@ -0,0 +1,25 @@
+package com.platzi.pizza.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Parámetros de la corrida, tomados de las propiedades del sistema "loadtest.*"
+ * (./gradlew loadTest -Ploadtest.rate=300 -Ploadtest.duration=PT2M).
+ * @param rate Peticiones por segundo que llegan en promedio, sin importar cuánto tarde el servidor.
+ * @param profiles Perfiles extra de Spring, por ejemplo "virtual".
+ */
+record LoadTestSettings(double rate, Duration warmup, Duration duration, int pizzas, int customers, int orders,
+                        String profiles, long seed) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Integer.getInteger("loadtest.pizzas", 40),
+                Integer.getInteger("loadtest.customers", 5_000),
+                Integer.getInteger("loadtest.orders", 50_000),
+                System.getProperty("loadtest.profiles", ""),
+                Long.getLong("loadtest.seed", 7L));
+    }
+}
@@ -0,0 +1,111 @@
+package com.platzi.pizza.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de modelo abierto: las llegadas siguen un proceso de Poisson con la tasa
+ * configurada y no esperan a que terminen las anteriores. La latencia se mide desde el instante
+ * en que la petición debía salir, así una pausa del servidor no se esconde (coordinated omission).
+ */
+final class OpenLoadGenerator {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final URI baseUri;
+    private final Scenario scenario;
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    OpenLoadGenerator(URI baseUri, Scenario scenario, LoadTestSettings settings) {
+        this.baseUri = baseUri;
+        this.scenario = scenario;
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        scenario.endpoints().forEach(endpoint -> stats.put(endpoint.name(), new EndpointStats()));
+    }
+
+    /**
+     * Corre el calentamiento (sin registrar) y luego la medición.
+     * @return Estadísticas por endpoint de la fase de medición.
+     */
+    Map<String, EndpointStats> run() throws InterruptedException {
+        drive(settings.warmup(), false);
+        stats.values().forEach(EndpointStats::reset);
+        long elapsed = drive(settings.duration(), true);
+        stats.values().forEach(endpointStats -> endpointStats.elapsedNanos = elapsed);
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return stats;
+    }
+
+    private long drive(Duration duration, boolean record) {
+        Random random = new Random(settings.seed());
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intended = start;
+        while (true) {
+            // Tiempo entre llegadas exponencial: -ln(U) * media.
+            intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Scenario.Endpoint endpoint = scenario.pick(random);
+            HttpRequest request = endpoint.request().apply(baseUri, random);
+            EndpointStats endpointStats = stats.get(endpoint.name());
+            long scheduledAt = intended;
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (record) {
+                            endpointStats.record(System.nanoTime() - scheduledAt, error == null && response.statusCode() < 400);
+                        }
+                    });
+        }
+        return System.nanoTime() - start;
+    }
+
+    static final class EndpointStats {
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final LongAdder errors = new LongAdder();
+        long elapsedNanos;
+
+        void record(long nanos, boolean ok) {
+            latency.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        void reset() {
+            latency.reset();
+            errors.reset();
+        }
+    }
+}
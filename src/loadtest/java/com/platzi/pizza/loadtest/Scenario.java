@@ -0,0 +1,87 @@
+package com.platzi.pizza.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Mezcla de tráfico de la hora de la comida: cada endpoint tiene un peso y una forma de armar
+ * la petición a partir de un número aleatorio.
+ */
+final class Scenario {
+
+    record Endpoint(String name, int weight, BiFunction<URI, Random, HttpRequest> request) {
+    }
+
+    private final List<Endpoint> endpoints;
+    private final int[] cumulativeWeights;
+
+    private Scenario(List<Endpoint> endpoints) {
+        this.endpoints = endpoints;
+        this.cumulativeWeights = new int[endpoints.size()];
+        int total = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            total += endpoints.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    static Scenario lunchRush(LoadTestSettings settings) {
+        return new Scenario(List.of(
+                new Endpoint("GET /api/pizzas/available", 35, (base, random) ->
+                        get(base, "/api/pizzas/available?page=" + random.nextInt(3) + "&elements=8&sortBy=price")),
+                new Endpoint("GET /api/pizzas/{id}", 10, (base, random) ->
+                        get(base, "/api/pizzas/" + (1 + random.nextInt(settings.pizzas())))),
+                new Endpoint("GET /api/customers/phone/{phone}", 20, (base, random) ->
+                        get(base, "/api/customers/phone/" + LoadTestData.phone(1 + random.nextInt(settings.customers())))),
+                new Endpoint("GET /api/orders/today", 10, (base, random) ->
+                        get(base, "/api/orders/today")),
+                new Endpoint("GET /api/orders/summary/{id}", 10, (base, random) ->
+                        get(base, "/api/orders/summary/" + (1 + random.nextInt(settings.orders())))),
+                new Endpoint("POST /api/orders", 15, (base, random) ->
+                        HttpRequest.newBuilder(base.resolve("/api/orders"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(newOrder(settings, random)))
+                                .build())));
+    }
+
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    Endpoint pick(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints.get(i);
+            }
+        }
+        throw new IllegalStateException("Weights are not cumulative");
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+
+    private static String newOrder(LoadTestSettings settings, Random random) {
+        StringBuilder items = new StringBuilder();
+        int count = 1 + random.nextInt(4);
+        double total = 0;
+        for (int i = 1; i <= count; i++) {
+            double quantity = 0.5 * (1 + random.nextInt(4));
+            double price = Math.round(quantity * (10 + random.nextInt(20)) * 100) / 100.0;
+            total += price;
+            items.append(i > 1 ? "," : "").append(String.format(Locale.ROOT,
+                    "{\"idItem\":%d,\"idPizza\":%d,\"quantity\":%.1f,\"price\":%.2f}",
+                    i, 1 + random.nextInt(settings.pizzas()), quantity, price));
+        }
+        return String.format(Locale.ROOT,
+                "{\"idCustomer\":\"%s\",\"date\":\"%s\",\"total\":%.2f,\"method\":\"%s\",\"items\":[%s]}",
+                LoadTestData.customerId(1 + random.nextInt(settings.customers())), LocalDateTime.now().withNano(0),
+                total, "DCS".charAt(random.nextInt(3)), items);
+    }
+}
@@ -0,0 +1,14 @@
+package com.platzi.pizza.persistence.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un cambio de un campo de una pizza. Para altas y bajas field puede ser null.
+ */
+public record AuditEvent(Integer idPizza, String action, String field, String oldValue, String newValue,
+                         LocalDateTime changedAt) {
+
+    public static final String INSERT = "INSERT";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+}
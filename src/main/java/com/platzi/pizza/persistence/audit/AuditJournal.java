@@ -0,0 +1,133 @@
+package com.platzi.pizza.persistence.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Diario de auditoría asíncrono. Los hilos de las peticiones solo dejan el evento en una cola
+ * circular sin bloqueos; un hilo de fondo la vacía y escribe en pizza_audit por lotes.
+ * Si la cola se llena los eventos se descartan y se cuentan en lugar de frenar la petición.
+ */
+@Component
+public class AuditJournal {
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final String INSERT =
+            "INSERT INTO pizza_audit (id_pizza, action, field, old_value, new_value, changed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditRingBuffer buffer;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public AuditJournal(JdbcTemplate jdbcTemplate,
+                        @Value("${pizzeria.audit.buffer-size:8192}") int bufferSize,
+                        @Value("${pizzeria.audit.batch-size:256}") int batchSize,
+                        @Value("${pizzeria.audit.flush-interval:500ms}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new AuditRingBuffer(bufferSize);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        while (flush() > 0) {
+            // vacía lo que quedó pendiente
+        }
+    }
+
+    public void record(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Registra el evento cuando la transacción actual se confirme, o de inmediato si no hay transacción.
+     * Sirve para los cambios que no pasan por Hibernate (UPDATE nativos o JDBC).
+     */
+    public void recordAfterCommit(AuditEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(event);
+            }
+        });
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                if (flush() < batchSize) {
+                    LockSupport.parkNanos(flushInterval.toNanos());
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not write audit batch", e);
+                LockSupport.parkNanos(flushInterval.toNanos());
+            }
+        }
+    }
+
+    private int flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        AuditEvent event;
+        while (batch.size() < batchSize && (event = buffer.poll()) != null) {
+            batch.add(event);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, e) -> {
+            ps.setInt(1, e.idPizza());
+            ps.setString(2, e.action());
+            ps.setString(3, e.field());
+            ps.setString(4, e.oldValue());
+            ps.setString(5, e.newValue());
+            ps.setTimestamp(6, Timestamp.valueOf(e.changedAt()));
+        });
+        return batch.size();
+    }
+}
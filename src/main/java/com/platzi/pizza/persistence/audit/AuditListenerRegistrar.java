@@ -0,0 +1,36 @@
+package com.platzi.pizza.persistence.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registra AuditPizzaListener en Hibernate para los eventos posteriores al commit.
+ */
+@Component
+public class AuditListenerRegistrar {
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditJournal journal;
+
+    @Autowired
+    public AuditListenerRegistrar(EntityManagerFactory entityManagerFactory, AuditJournal journal) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.journal = journal;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        AuditPizzaListener listener = new AuditPizzaListener(journal);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+}
@@ -1,33 +1,104 @@
 package com.platzi.pizza.persistence.audit;
 
 import com.platzi.pizza.persistence.entity.PizzaEntity;
-import jakarta.persistence.PostLoad;
-import jakarta.persistence.PostPersist;
-import jakarta.persistence.PostUpdate;
-import jakarta.persistence.PreRemove;
-import org.apache.logging.log4j.util.internal.SerializationUtil;
-import org.springframework.util.SerializationUtils;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
 
-public class AuditPizzaListener {
-    private PizzaEntity currentValue;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
 
+/**
+ * Escucha los cambios de PizzaEntity una vez confirmados y manda al diario solo los campos que
+ * cambiaron. El estado anterior sale del snapshot que Hibernate ya guarda para el dirty checking,
+ * así que no hace falta clonar la entidad al cargarla.
+ */
+public class AuditPizzaListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
 
-    @PostLoad
-    public void postLoad(PizzaEntity entity){
-        System.out.println("PostLoad");
-        this.currentValue = SerializationUtils.clone(entity);
+    // Campos que cambian en cada guardado y no aportan al historial.
+    private static final Set<String> IGNORED = Set.of("createdDate", "modifiedDate");
+
+    private final AuditJournal journal;
+
+    public AuditPizzaListener(AuditJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof PizzaEntity pizza)) {
+            return;
+        }
+        String[] properties = event.getPersister().getPropertyNames();
+        Object[] state = event.getState();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < properties.length; i++) {
+            if (!IGNORED.contains(properties[i]) && state[i] != null) {
+                journal.record(new AuditEvent(pizza.getIdPizza(), AuditEvent.INSERT, properties[i], null, text(state[i]), now));
+            }
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof PizzaEntity pizza)) {
+            return;
+        }
+        String[] properties = event.getPersister().getPropertyNames();
+        Object[] state = event.getState();
+        Object[] oldState = event.getOldState();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i : changedProperties(event, properties.length)) {
+            Object before = oldState != null ? oldState[i] : null;
+            if (!IGNORED.contains(properties[i]) && !Objects.equals(before, state[i])) {
+                journal.record(new AuditEvent(pizza.getIdPizza(), AuditEvent.UPDATE, properties[i], text(before), text(state[i]), now));
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof PizzaEntity pizza) {
+            journal.record(new AuditEvent(pizza.getIdPizza(), AuditEvent.DELETE, null, pizza.getName(), null, LocalDateTime.now()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return PizzaEntity.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
     }
 
-    @PostPersist
-    @PostUpdate
-    public void onPostPersist(PizzaEntity entity){
-        System.out.println("Post Persist update");
-        System.out.println("Old value: " + this.currentValue);
-        System.out.println("New value: " + entity.toString());
+    private static int[] changedProperties(PostUpdateEvent event, int propertyCount) {
+        if (event.getDirtyProperties() != null) {
+            return event.getDirtyProperties();
+        }
+        int[] all = new int[propertyCount];
+        for (int i = 0; i < propertyCount; i++) {
+            all[i] = i;
+        }
+        return all;
     }
 
-    @PreRemove
-    public void onPreDelete(PizzaEntity entity){
-        System.out.println(entity.toString());
+    private static String text(Object value) {
+        return value == null ? null : String.valueOf(value);
     }
 }
@@ -0,0 +1,69 @@
+package com.platzi.pizza.persistence.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola circular acotada y sin bloqueos (esquema de D. Vyukov): cada celda lleva un número de secuencia
+ * que indica si está libre para escribir o lista para leer, y productores y consumidores solo compiten
+ * con un compareAndSet sobre su contador. Si está llena, offer devuelve false en lugar de esperar.
+ */
+final class AuditRingBuffer {
+    private final AtomicReferenceArray<AuditEvent> events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);
+        this.events = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(AuditEvent event) {
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    events.set(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false; // llena
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    AuditEvent poll() {
+        long position = dequeuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    AuditEvent event = events.get(index);
+                    events.set(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return event;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                return null; // vacía
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+}
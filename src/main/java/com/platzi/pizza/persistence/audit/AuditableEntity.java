@@ -1,21 +1,26 @@
 package com.platzi.pizza.persistence.audit;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.time.LocalDateTime;
 
 @MappedSuperclass
+@Getter
 public class AuditableEntity {
 
-    @Column(name = "created_date")
+    @Column(name = "created_date", updatable = false)
     @CreatedDate
+    @JsonIgnore
     private LocalDateTime createdDate;
 
     @Column(name = "modified_date")
     @LastModifiedDate
+    @JsonIgnore
     private LocalDateTime modifiedDate;
 
 }
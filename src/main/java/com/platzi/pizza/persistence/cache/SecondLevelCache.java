@@ -0,0 +1,92 @@
+package com.platzi.pizza.persistence.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.platzi.pizza.persistence.entity.PizzaEntity;
+import com.platzi.pizza.service.dto.CacheRegionStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acceso a la caché de segundo nivel de Hibernate: desalojo de pizzas que cambian fuera de
+ * Hibernate (UPDATE por JDBC) y estadísticas por región. Las consultas nativas declaran sus
+ * tablas con HINT_NATIVE_SPACES y Hibernate las desaloja solo. Solo se cachean entidades: las
+ * consultas del menú se responden desde MenuCache y no pasan por la base.
+ */
+@Component
+public class SecondLevelCache {
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory, CacheManager secondLevelCacheManager) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheManager = secondLevelCacheManager;
+    }
+
+    /**
+     * Saca las pizzas de la caché ahora y otra vez al confirmarse la transacción, para que una
+     * lectura concurrente no deje guardado el precio anterior.
+     * @param pizzaIds Pizzas modificadas.
+     */
+    public void evictPizzas(Collection<Integer> pizzaIds) {
+        List<Integer> ids = List.copyOf(pizzaIds);
+        evict(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(ids);
+                }
+            });
+        }
+    }
+
+    private void evict(List<Integer> pizzaIds) {
+        for (Integer id : pizzaIds) {
+            sessionFactory.getCache().evictEntityData(PizzaEntity.class, id);
+        }
+    }
+
+    /**
+     * Tamaño, TTL y aciertos de cada región creada. Los aciertos salen de las estadísticas de
+     * Hibernate (hibernate.generate_statistics); el tamaño y el TTL, de Caffeine.
+     */
+    public List<CacheRegionStatsDto> getRegionStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheRegionStatsDto> regions = new ArrayList<>();
+        for (String region : cacheManager.getCacheNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            long hits = regionStatistics != null ? regionStatistics.getHitCount() : 0;
+            long misses = regionStatistics != null ? regionStatistics.getMissCount() : 0;
+            long puts = regionStatistics != null ? regionStatistics.getPutCount() : 0;
+            regions.add(describe(region, hits, misses, puts));
+        }
+        return regions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheRegionStatsDto describe(String region, long hits, long misses, long puts) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        long size = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+        CaffeineConfiguration<Object, Object> configuration = cache.getConfiguration(CaffeineConfiguration.class);
+        long maxSize = configuration.getMaximumSize().orElse(-1);
+        OptionalLong ttl = configuration.getExpireAfterWrite();
+        long ttlSeconds = ttl.isPresent() ? TimeUnit.NANOSECONDS.toSeconds(ttl.getAsLong()) : -1;
+        double hitRatio = hits + misses == 0 ? -1 : (double) hits / (hits + misses);
+        return new CacheRegionStatsDto(region, size, maxSize, ttlSeconds, hits, misses, puts, hitRatio);
+    }
+}
@@ -0,0 +1,62 @@
+package com.platzi.pizza.persistence.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Modo de hilos virtuales (perfil "virtual"): pone el limitador de concurrencia delante del pool
+ * de conexiones para que las peticiones esperen ahí y no dentro del driver.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pizzeria.datasource.concurrency-limit.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                // Solo se envuelven los pools; el enrutador y los proxies ya llegan a ellos.
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource
+                        || bean instanceof AbstractRoutingDataSource) {
+                    return bean;
+                }
+                // Por defecto tantos permisos como conexiones tiene el pool (10 en Hikari).
+                int permits = environment.getProperty("pizzeria.datasource.concurrency-limit.permits", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                Duration timeout = environment.getProperty("pizzeria.datasource.concurrency-limit.acquire-timeout",
+                        Duration.class, Duration.ofSeconds(30));
+                return new ConcurrencyLimitedDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+
+    /**
+     * Con el limitador la espera ocurre en el semáforo y no en Hikari: se exponen sus permisos libres y su cola.
+     */
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("pizzeria.datasource.permits.available", limited, ConcurrencyLimitedDataSource::getAvailablePermits)
+                        .tag("name", name)
+                        .register(registry);
+                Gauge.builder("pizzeria.datasource.permits.waiting", limited, ConcurrencyLimitedDataSource::getQueueLength)
+                        .tag("name", name)
+                        .register(registry);
+            }
+        });
+    }
+}
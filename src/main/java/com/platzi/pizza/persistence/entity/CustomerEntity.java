@@ -1,16 +1,23 @@
 package com.platzi.pizza.persistence.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name="customer")
 @Getter
 @Setter
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CustomerEntity.CACHE_REGION)
 public class CustomerEntity{
+    public static final String CACHE_REGION = "customer";
+
     @Id
     @Column(name = "id_customer", nullable = false, length = 15)
     private String idCustomer;
@@ -26,4 +33,21 @@ public class CustomerEntity{
 
     @Column(name="phone_number", length = 20)
     private String phoneNumber;
+
+    // phoneNumber normalizado: la búsqueda por teléfono no depende del formato con que se capturó,
+    // y el teléfono se sigue mostrando tal como se escribió.
+    @Column(name="phone_lookup", length = 20)
+    @JsonIgnore
+    private String phoneLookup;
+
+    @PrePersist
+    @PreUpdate
+    void updatePhoneLookup() {
+        phoneLookup = normalizePhone(phoneNumber);
+    }
+
+    // Solo los dígitos: "55 1234-5678" y "5512345678" son el mismo teléfono.
+    public static String normalizePhone(String phone) {
+        return phone == null ? null : phone.replaceAll("\\D", "");
+    }
 }
@@ -0,0 +1,37 @@
+package com.platzi.pizza.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave de idempotencia de un POST /api/orders ya confirmado, la orden que creó y la huella de la
+ * petición. La clave primaria es lo que impide, entre todas las instancias, guardar dos veces la misma orden.
+ */
+@Entity
+@Table(name = "idempotency_key")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyKeyEntity {
+    public static final int MAX_KEY_LENGTH = 100;
+
+    @Id
+    @Column(name = "idempotency_key", nullable = false, length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    @Column(name = "id_order", nullable = false)
+    private Integer idOrder;
+
+    @Column(name = "request_hash", nullable = false, columnDefinition = "CHAR(64)")
+    private String requestHash;
+
+    @Column(name = "created_date", nullable = false, columnDefinition = "DATETIME")
+    private LocalDateTime createdDate;
+}
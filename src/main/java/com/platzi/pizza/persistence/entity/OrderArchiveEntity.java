@@ -0,0 +1,72 @@
+package com.platzi.pizza.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orden archivada: misma forma que pizza_order, para las órdenes más viejas que el horizonte de archivo.
+ */
+@Entity
+@Table(name = "pizza_order_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderArchiveEntity {
+    @Id
+    @Column(name = "id_order", nullable = false)
+    private Integer idOrder;
+
+    @Column(name = "id_customer", nullable = false, length = 15)
+    private String idCustomer;
+
+    @Column(nullable = false, columnDefinition = "DATETIME")
+    private LocalDateTime date;
+
+    @Column(nullable = false, columnDefinition = "DECIMAL(6,2)")
+    private Double total;
+
+    @Column(nullable = false, columnDefinition = "CHAR(1)")
+    private String method;
+
+    @Column(name = "additional_notes", length = 200)
+    private String additionalNotes;
+
+    @OneToMany(mappedBy = "order", fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @OrderBy("price ASC")
+    private List<OrderItemArchiveEntity> items;
+
+    /**
+     * Copia sin estado de persistencia, para tratar las órdenes archivadas igual que las vigentes.
+     */
+    public OrderEntity toOrder() {
+        OrderEntity order = new OrderEntity();
+        order.setIdOrder(idOrder);
+        order.setIdCustomer(idCustomer);
+        order.setDate(date);
+        order.setTotal(total);
+        order.setMethod(method);
+        order.setAdditionalNotes(additionalNotes);
+
+        List<OrderItemEntity> orderItems = new ArrayList<>(items.size());
+        for (OrderItemArchiveEntity archived : items) {
+            OrderItemEntity item = new OrderItemEntity();
+            item.setIdOrder(archived.getIdOrder());
+            item.setIdItem(archived.getIdItem());
+            item.setIdPizza(archived.getIdPizza());
+            item.setQuantity(archived.getQuantity());
+            item.setPrice(archived.getPrice());
+            item.setPizza(archived.getPizza());
+            orderItems.add(item);
+        }
+        order.setItems(orderItems);
+        return order;
+    }
+}
@@ -3,14 +3,12 @@ package com.platzi.pizza.persistence.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import jakarta.persistence.criteria.Fetch;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
-import java.text.DecimalFormat;
 import java.time.LocalDateTime;
-import java.util.Date;
 import java.util.List;
 
 @Entity
@@ -19,8 +17,14 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 public class OrderEntity {
+    public static final String ID_GENERATOR = "order_id";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Ids por bloques de 50 (en lugar de IDENTITY) para que Hibernate pueda agrupar los INSERT en lotes JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = ID_GENERATOR)
+    @TableGenerator(name = ID_GENERATOR, table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "pizza_order", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name="id_order", nullable = false)
     private Integer idOrder;
 
@@ -44,7 +48,8 @@ public class OrderEntity {
     @JsonIgnore
     private CustomerEntity customer;
 
-    @OneToMany(mappedBy = "order", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "order", fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @OrderBy("price ASC")
     private List<OrderItemEntity> items;
 }
@@ -0,0 +1,38 @@
+package com.platzi.pizza.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Orden aceptada por la ingesta en bloque que no se pudo guardar. El cliente ya recibió 202,
+ * así que la orden se conserva aquí (como JSON) hasta que alguien la revise o la reenvíe.
+ */
+@Entity
+@Table(name = "order_ingest_failure")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderIngestFailureEntity {
+    public static final int MAX_ERROR_LENGTH = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_failure", nullable = false)
+    private Long idFailure;
+
+    @Column(name = "id_customer", length = 15)
+    private String idCustomer;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false, length = MAX_ERROR_LENGTH)
+    private String error;
+
+    @Column(name = "failed_at", nullable = false, columnDefinition = "DATETIME")
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,45 @@
+package com.platzi.pizza.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Item de una orden archivada: misma forma que order_item.
+ */
+@Entity
+@Table(name = "order_item_archive")
+@IdClass(OrderItemId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderItemArchiveEntity {
+
+    @Id
+    @Column(name = "id_order", nullable = false)
+    private Integer idOrder;
+
+    @Id
+    @Column(name = "id_item", nullable = false)
+    private Integer idItem;
+
+    @Column(name = "id_pizza", nullable = false)
+    private Integer idPizza;
+
+    @Column(nullable = false, columnDefinition = "Decimal(2,1)")
+    private Double quantity;
+
+    @Column(nullable = false, columnDefinition = "DECIMAL(5,2)")
+    private Double price;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_order", referencedColumnName = "id_order", insertable = false, updatable = false)
+    private OrderArchiveEntity order;
+
+    // Sin llave foránea: el archivo no debe impedir borrar una pizza del menú.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_pizza", referencedColumnName = "id_pizza", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private PizzaEntity pizza;
+}
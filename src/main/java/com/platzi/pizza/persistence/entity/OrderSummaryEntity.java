@@ -0,0 +1,38 @@
+package com.platzi.pizza.persistence.entity;
+
+import com.platzi.pizza.persistence.projection.OrderSumary;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de una orden ya calculado (cliente, fecha, total y pizzas). Se escribe en la misma
+ * transacción que la orden para que leerlo sea una búsqueda por clave y no el JOIN de cuatro tablas.
+ */
+@Entity
+@Table(name = "order_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderSummaryEntity implements OrderSumary {
+    public static final int MAX_PIZZA_NAMES_LENGTH = 1000;
+
+    @Id
+    @Column(name = "id_order", nullable = false)
+    private Integer idOrder;
+
+    @Column(name = "customer_name", nullable = false, length = 60)
+    private String customerName;
+
+    @Column(name = "order_date", nullable = false, columnDefinition = "DATETIME")
+    private LocalDateTime orderDate;
+
+    @Column(name = "order_total", nullable = false, columnDefinition = "DECIMAL(6,2)")
+    private Double orderTotal;
+
+    @Column(name = "pizza_names", length = MAX_PIZZA_NAMES_LENGTH)
+    private String pizzaNames;
+}
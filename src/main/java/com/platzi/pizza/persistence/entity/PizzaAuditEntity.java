@@ -0,0 +1,41 @@
+package com.platzi.pizza.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del historial de cambios de las pizzas. La tabla solo recibe INSERT.
+ */
+@Entity
+@Table(name = "pizza_audit")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PizzaAuditEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_audit", nullable = false)
+    private Long idAudit;
+
+    @Column(name = "id_pizza", nullable = false)
+    private Integer idPizza;
+
+    @Column(nullable = false, length = 10)
+    private String action;
+
+    @Column(length = 30)
+    private String field;
+
+    @Column(name = "old_value", length = 150)
+    private String oldValue;
+
+    @Column(name = "new_value", length = 150)
+    private String newValue;
+
+    @Column(name = "changed_at", nullable = false, columnDefinition = "DATETIME")
+    private LocalDateTime changedAt;
+}
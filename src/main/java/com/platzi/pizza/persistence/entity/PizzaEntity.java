@@ -6,6 +6,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.io.Serializable;
@@ -13,11 +16,15 @@ import java.io.Serializable;
 @Entity
 @Table(name = "pizza")
 @EntityListeners(AuditingEntityListener.class)
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PizzaEntity.CACHE_REGION)
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 public class PizzaEntity extends AuditableEntity implements Serializable {
+    public static final String CACHE_REGION = "pizza";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,8 @@
+package com.platzi.pizza.persistence.projection;
+
+public interface CustomerListItem {
+    String getIdCustomer();
+    String getName();
+    String getEmail();
+    String getPhoneNumber();
+}
@@ -0,0 +1,21 @@
+package com.platzi.pizza.persistence.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Una fila por item de orden con los datos de la orden repetidos; las órdenes sin items
+ * llegan con los campos del item en null. Se agrupan en OrderDto.
+ */
+public interface OrderItemLine {
+    Integer getIdOrder();
+    String getIdCustomer();
+    LocalDateTime getDate();
+    Double getTotal();
+    String getMethod();
+    String getAdditionalNotes();
+    Integer getIdItem();
+    Integer getIdPizza();
+    String getPizzaName();
+    Double getQuantity();
+    Double getPrice();
+}
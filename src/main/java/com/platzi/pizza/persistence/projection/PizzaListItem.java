@@ -0,0 +1,11 @@
+package com.platzi.pizza.persistence.projection;
+
+public interface PizzaListItem {
+    Integer getIdPizza();
+    String getName();
+    String getDescription();
+    Double getPrice();
+    Boolean getVegetarian();
+    Boolean getVegan();
+    Boolean getAvailable();
+}
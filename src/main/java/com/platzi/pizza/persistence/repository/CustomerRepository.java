@@ -1,12 +1,30 @@
 package com.platzi.pizza.persistence.repository;
 
 import com.platzi.pizza.persistence.entity.CustomerEntity;
+import com.platzi.pizza.persistence.projection.CustomerListItem;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface CustomerRepository extends ListCrudRepository<CustomerEntity,String> {
 
-    @Query(value = "SELECT c FROM CustomerEntity c WHERE c.phoneNumber = :phone")
+    //Por el teléfono normalizado (solo dígitos), ver CustomerEntity.normalizePhone
+    @Query(value = "SELECT c FROM CustomerEntity c WHERE c.phoneLookup = :phone")
     CustomerEntity findByPhone(@Param("phone") String phone);
+
+    //Solo los teléfonos normalizados, para armar el filtro de Bloom de la caché de clientes
+    @Query(value = "SELECT c.phoneLookup FROM CustomerEntity c WHERE c.phoneLookup IS NOT NULL")
+    List<String> findAllPhoneNumbers();
+
+    //Teléfonos dados de alta o cambiados desde una fecha (también en otras instancias), para completar el filtro entre reconstrucciones
+    @Query(value = "SELECT phone_lookup FROM customer WHERE modified_date >= :since AND phone_lookup IS NOT NULL", nativeQuery = true)
+    List<String> findPhoneNumbersModifiedSince(@Param("since") LocalDateTime since);
+
+    //Listado sin cargar entidades
+    @Query(value = "SELECT c.idCustomer AS idCustomer, c.name AS name, c.email AS email, c.phoneNumber AS phoneNumber " +
+            "FROM CustomerEntity c ORDER BY c.name")
+    List<CustomerListItem> findAllListItems();
 }
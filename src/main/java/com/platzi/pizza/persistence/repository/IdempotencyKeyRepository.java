@@ -0,0 +1,30 @@
+package com.platzi.pizza.persistence.repository;
+
+import com.platzi.pizza.persistence.entity.IdempotencyKeyEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends ListCrudRepository<IdempotencyKeyEntity, String> {
+
+    //INSERT directo (no merge): si la clave ya existe falla con DataIntegrityViolationException.
+    //Declara la tabla que toca para que Hibernate no invalide toda la caché de segundo nivel.
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, id_order, request_hash, created_date) " +
+            "VALUES (:key, :idOrder, :requestHash, :createdDate)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_key"))
+    @Modifying
+    void insert(@Param("key") String key, @Param("idOrder") int idOrder, @Param("requestHash") String requestHash,
+                @Param("createdDate") LocalDateTime createdDate);
+
+    @Query(value = "DELETE FROM IdempotencyKeyEntity k WHERE k.createdDate < :before")
+    @Modifying
+    @Transactional
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,106 @@
+package com.platzi.pizza.persistence.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mueve órdenes de pizza_order y order_item a sus tablas de archivo con JDBC. Cada bloque se
+ * elige por clave primaria, así las sentencias solo bloquean esas filas viejas y no las vigentes.
+ * El candado de scheduled_lock evita que dos instancias archiven a la vez.
+ */
+@Repository
+public class OrderArchiveBatchRepository {
+    private static final String FIND_IDS_BEFORE =
+            "SELECT id_order FROM pizza_order WHERE date < :cutoff ORDER BY id_order LIMIT :limit";
+    private static final String COPY_ITEMS =
+            "INSERT INTO order_item_archive (id_order, id_item, id_pizza, quantity, price) " +
+            "SELECT id_order, id_item, id_pizza, quantity, price FROM order_item WHERE id_order IN (:ids)";
+    private static final String COPY_ORDERS =
+            "INSERT INTO pizza_order_archive (id_order, id_customer, date, total, method, additional_notes) " +
+            "SELECT id_order, id_customer, date, total, method, additional_notes FROM pizza_order WHERE id_order IN (:ids)";
+    private static final String DELETE_SUMMARIES = "DELETE FROM order_summary WHERE id_order IN (:ids)";
+    private static final String DELETE_ITEMS = "DELETE FROM order_item WHERE id_order IN (:ids)";
+    private static final String DELETE_ORDERS = "DELETE FROM pizza_order WHERE id_order IN (:ids)";
+    private static final String LOCK =
+            "UPDATE scheduled_lock SET locked_until = :until, locked_by = :owner " +
+            "WHERE lock_name = :name AND locked_until <= :now";
+    private static final String RENEW_LOCK =
+            "UPDATE scheduled_lock SET locked_until = :until WHERE lock_name = :name AND locked_by = :owner";
+    private static final String UNLOCK =
+            "UPDATE scheduled_lock SET locked_until = :now, locked_by = NULL WHERE lock_name = :name AND locked_by = :owner";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OrderArchiveBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ids de las órdenes más antiguas que cutoff, como mucho limit.
+     */
+    public List<Integer> findIdsBefore(LocalDateTime cutoff, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(FIND_IDS_BEFORE, params, Integer.class);
+    }
+
+    /**
+     * Copia las órdenes y sus items al archivo y los borra de las tablas vigentes, junto con su
+     * resumen en order_summary. Debe llamarse dentro de una transacción para que el bloque se mueva
+     * completo o no se mueva.
+     * @return Órdenes movidas.
+     */
+    public int archive(List<Integer> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds);
+        int moved = jdbcTemplate.update(COPY_ORDERS, params);
+        jdbcTemplate.update(COPY_ITEMS, params);
+        jdbcTemplate.update(DELETE_SUMMARIES, params);
+        jdbcTemplate.update(DELETE_ITEMS, params);
+        jdbcTemplate.update(DELETE_ORDERS, params);
+        return moved;
+    }
+
+    /**
+     * Toma el candado name hasta until si está libre o venció.
+     * @return true si owner quedó con el candado.
+     */
+    public boolean lock(String name, String owner, LocalDateTime now, LocalDateTime until) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("name", name)
+                .addValue("owner", owner)
+                .addValue("now", now)
+                .addValue("until", until);
+        return jdbcTemplate.update(LOCK, params) == 1;
+    }
+
+    /**
+     * Extiende el candado hasta until. Dentro de la transacción de un bloque también bloquea la fila
+     * hasta confirmar, así ninguna otra instancia puede tomarlo a mitad del bloque.
+     * @return false si owner ya no tiene el candado.
+     */
+    public boolean renewLock(String name, String owner, LocalDateTime until) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("name", name)
+                .addValue("owner", owner)
+                .addValue("until", until);
+        return jdbcTemplate.update(RENEW_LOCK, params) == 1;
+    }
+
+    /**
+     * Libera el candado si todavía es de owner.
+     */
+    public void unlock(String name, String owner, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("name", name)
+                .addValue("owner", owner)
+                .addValue("now", now);
+        jdbcTemplate.update(UNLOCK, params);
+    }
+}
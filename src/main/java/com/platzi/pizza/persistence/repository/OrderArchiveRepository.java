@@ -0,0 +1,52 @@
+package com.platzi.pizza.persistence.repository;
+
+import com.platzi.pizza.persistence.entity.OrderArchiveEntity;
+import com.platzi.pizza.persistence.projection.OrderItemLine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Lecturas de las órdenes archivadas, con las mismas filas que las consultas de OrderRepository.
+ */
+public interface OrderArchiveRepository extends Repository<OrderArchiveEntity, Integer> {
+    String ORDER_LINES = "SELECT o.idOrder AS idOrder, o.idCustomer AS idCustomer, o.date AS date, o.total AS total, " +
+            "o.method AS method, o.additionalNotes AS additionalNotes, i.idItem AS idItem, i.idPizza AS idPizza, " +
+            "p.name AS pizzaName, i.quantity AS quantity, i.price AS price " +
+            "FROM OrderArchiveEntity o LEFT JOIN o.items i LEFT JOIN i.pizza p ";
+
+    @Query(value = ORDER_LINES + OrderRepository.ORDER_LINES_SORT)
+    List<OrderItemLine> findAllLines();
+
+    @Query(value = ORDER_LINES + "WHERE o.date > :date" + OrderRepository.ORDER_LINES_SORT)
+    List<OrderItemLine> findLinesByDateAfter(@Param("date") LocalDateTime date);
+
+    @Query(value = ORDER_LINES + "WHERE o.method IN :methods" + OrderRepository.ORDER_LINES_SORT)
+    List<OrderItemLine> findLinesByMethodIn(@Param("methods") List<String> methods);
+
+    @Query(value = ORDER_LINES + "WHERE o.idCustomer = :id" + OrderRepository.ORDER_LINES_SORT)
+    List<OrderItemLine> findCustomerOrderLines(@Param("id") String idCustomer);
+
+    @Query(value = "SELECT o FROM OrderArchiveEntity o " +
+            "WHERE o.date >= :from AND o.date < :to AND o.method IN :methods " +
+            "ORDER BY o.idOrder")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OrderArchiveEntity> streamByDateAndMethod(@Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to,
+                                                     @Param("methods") Collection<String> methods);
+
+    @Query("SELECT MAX(o.date) FROM OrderArchiveEntity o")
+    Optional<LocalDateTime> findLatestDate();
+}
@@ -0,0 +1,7 @@
+package com.platzi.pizza.persistence.repository;
+
+import com.platzi.pizza.persistence.entity.OrderIngestFailureEntity;
+import org.springframework.data.repository.ListCrudRepository;
+
+public interface OrderIngestFailureRepository extends ListCrudRepository<OrderIngestFailureEntity, Long> {
+}
@@ -1,21 +1,58 @@
 package com.platzi.pizza.persistence.repository;
 
 import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.projection.OrderItemLine;
 import com.platzi.pizza.persistence.projection.OrderSumary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends ListCrudRepository<OrderEntity, Integer> {
-    List<OrderEntity> findByDateAfter(LocalDateTime date);
-    List<OrderEntity> findByMethodIn(List<String> methods);
+    String ORDER_LINES = "SELECT o.idOrder AS idOrder, o.idCustomer AS idCustomer, o.date AS date, o.total AS total, " +
+            "o.method AS method, o.additionalNotes AS additionalNotes, i.idItem AS idItem, i.idPizza AS idPizza, " +
+            "p.name AS pizzaName, i.quantity AS quantity, i.price AS price " +
+            "FROM OrderEntity o LEFT JOIN o.items i LEFT JOIN i.pizza p ";
+    String ORDER_LINES_SORT = " ORDER BY o.idOrder, i.price";
 
-    @Query(value = "SELECT * FROM pizza_order WHERE id_customer = :id", nativeQuery = true)
-    List<OrderEntity> findCustomerOrders(@Param("id") String idCustomer);
+    //Los listados traen solo las columnas que se muestran, una fila por item, sin cargar entidades
+    @Query(value = ORDER_LINES + ORDER_LINES_SORT)
+    List<OrderItemLine> findAllLines();
+
+    @Query(value = ORDER_LINES + "WHERE o.date > :date" + ORDER_LINES_SORT)
+    List<OrderItemLine> findLinesByDateAfter(@Param("date") LocalDateTime date);
+
+    @Query(value = ORDER_LINES + "WHERE o.method IN :methods" + ORDER_LINES_SORT)
+    List<OrderItemLine> findLinesByMethodIn(@Param("methods") List<String> methods);
+
+    @Query(value = ORDER_LINES + "WHERE o.idCustomer = :id" + ORDER_LINES_SORT)
+    List<OrderItemLine> findCustomerOrderLines(@Param("id") String idCustomer);
+
+    //Paginación por keyset; los items se cargan por lotes (el fetch join no se puede combinar con el límite)
+    Window<OrderEntity> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    //Recorre las órdenes con un cursor del lado del servidor en vez de materializar la lista completa
+    @Query(value = "SELECT o FROM OrderEntity o " +
+            "WHERE o.date >= :from AND o.date < :to AND o.method IN :methods " +
+            "ORDER BY o.idOrder")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OrderEntity> streamByDateAndMethod(@Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              @Param("methods") Collection<String> methods);
 
     @Query(value = "SELECT po.id_order AS idOrder, " +
             "       cu.name AS customerName, " +
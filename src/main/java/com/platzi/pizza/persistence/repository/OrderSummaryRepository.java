@@ -0,0 +1,28 @@
+package com.platzi.pizza.persistence.repository;
+
+import com.platzi.pizza.persistence.entity.OrderSummaryEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface OrderSummaryRepository extends ListCrudRepository<OrderSummaryEntity, Integer> {
+
+    //Calcula de una vez los resúmenes que faltan (datos cargados por fuera de OrderService); el mismo JOIN que findSummary
+    @Query(value = "INSERT INTO order_summary (id_order, customer_name, order_date, order_total, pizza_names) " +
+            "SELECT po.id_order, cu.name, po.date, po.total, LEFT(GROUP_CONCAT(pi.name), 1000) " +
+            "FROM pizza_order po " +
+            "INNER JOIN customer cu ON po.id_customer = cu.id_customer " +
+            "INNER JOIN order_item oi ON po.id_order = oi.id_order " +
+            "INNER JOIN pizza pi ON oi.id_pizza = pi.id_pizza " +
+            "WHERE NOT EXISTS (SELECT 1 FROM order_summary os WHERE os.id_order = po.id_order) " +
+            "GROUP BY po.id_order, cu.name, po.date, po.total",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_summary"))
+    @Modifying
+    @Transactional
+    int insertMissing();
+}
@@ -0,0 +1,12 @@
+package com.platzi.pizza.persistence.repository;
+
+import com.platzi.pizza.persistence.entity.PizzaAuditEntity;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.List;
+
+public interface PizzaAuditRepository extends ListCrudRepository<PizzaAuditEntity, Long> {
+
+    //Historial de cambios de una pizza, del más reciente al más antiguo
+    List<PizzaAuditEntity> findByIdPizzaOrderByIdAuditDesc(Integer idPizza);
+}
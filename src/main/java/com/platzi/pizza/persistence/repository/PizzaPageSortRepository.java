@@ -1,10 +1,15 @@
 package com.platzi.pizza.persistence.repository;
 
 import com.platzi.pizza.persistence.entity.PizzaEntity;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 public interface PizzaPageSortRepository extends PagingAndSortingRepository<PizzaEntity, Integer> {
-    Page<PizzaEntity> findByAvailableTrue(Pageable pageable);
+    //Paginación por keyset: continúa desde la posición dada sin OFFSET ni COUNT
+    Window<PizzaEntity> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<PizzaEntity> findByAvailableTrue(ScrollPosition position, Sort sort, Limit limit);
 }
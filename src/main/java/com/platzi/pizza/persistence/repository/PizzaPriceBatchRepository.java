@@ -0,0 +1,110 @@
+package com.platzi.pizza.persistence.repository;
+
+import com.platzi.pizza.service.dto.UpdatePizzaPriceDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Actualizaciones de precio en lote con JDBC: un solo executeBatch para toda la lista
+ * en lugar de un existsById y un UPDATE por pizza. Las filas se bloquean con un SELECT por clave
+ * (FOR UPDATE) antes de escribir, y de ese SELECT sale qué pizzas existían: los conteos de
+ * executeBatch no sirven para eso porque el driver puede devolver SUCCESS_NO_INFO.
+ * Deben llamarse dentro de una transacción para que el bloqueo dure hasta el UPDATE.
+ */
+@Repository
+public class PizzaPriceBatchRepository {
+    private static final String UPDATE_PRICE = "UPDATE pizza SET price = ?, modified_date = NOW() WHERE id_pizza = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PizzaPriceBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aplica los precios en un lote. Solo se envían los de pizzas que existen.
+     * @return Por cada elemento de la lista, true si la pizza existía.
+     */
+    public boolean[] updatePrices(List<UpdatePizzaPriceDto> prices) {
+        Set<Integer> existing = new HashSet<>(lockIds(prices.stream().map(UpdatePizzaPriceDto::getPizzaId).toList()));
+
+        boolean[] found = new boolean[prices.size()];
+        List<UpdatePizzaPriceDto> toUpdate = new ArrayList<>(prices.size());
+        for (int i = 0; i < prices.size(); i++) {
+            found[i] = existing.contains(prices.get(i).getPizzaId());
+            if (found[i]) {
+                toUpdate.add(prices.get(i));
+            }
+        }
+
+        if (!toUpdate.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_PRICE, toUpdate, toUpdate.size(), (ps, price) -> {
+                ps.setDouble(1, price.getNewPrice());
+                ps.setInt(2, price.getPizzaId());
+            });
+        }
+        return found;
+    }
+
+    /**
+     * Multiplica por factor el precio de las pizzas que cumplen los filtros (un filtro null no se aplica),
+     * redondeado a dos decimales. El nuevo precio lo calcula la base en el mismo UPDATE, así no se
+     * pisa un cambio hecho entre la lectura y la escritura.
+     * @return Precio final de cada pizza modificada.
+     */
+    public List<UpdatePizzaPriceDto> applyFactor(BigDecimal factor, Boolean vegan, Boolean vegetarian, Boolean available) {
+        StringBuilder sql = new StringBuilder("SELECT id_pizza FROM pizza WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendFilter(sql, args, "vegan", vegan);
+        appendFilter(sql, args, "vegetarian", vegetarian);
+        appendFilter(sql, args, "available", available);
+        List<Integer> ids = jdbcTemplate.queryForList(sql.append(" FOR UPDATE").toString(), Integer.class, args.toArray());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object> updateArgs = new ArrayList<>(ids.size() + 1);
+        updateArgs.add(factor);
+        updateArgs.addAll(ids);
+        jdbcTemplate.update("UPDATE pizza SET price = ROUND(price * ?, 2), modified_date = NOW() WHERE id_pizza IN ("
+                + placeholders(ids) + ")", updateArgs.toArray());
+
+        return jdbcTemplate.query("SELECT id_pizza, price FROM pizza WHERE id_pizza IN (" + placeholders(ids) + ") ORDER BY id_pizza",
+                (rs, rowNum) -> {
+                    UpdatePizzaPriceDto price = new UpdatePizzaPriceDto();
+                    price.setPizzaId(rs.getInt("id_pizza"));
+                    price.setNewPrice(rs.getDouble("price"));
+                    return price;
+                }, ids.toArray());
+    }
+
+    // Ids de la lista que existen, con las filas bloqueadas hasta el fin de la transacción.
+    private List<Integer> lockIds(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT id_pizza FROM pizza WHERE id_pizza IN (" + placeholders(ids) + ") FOR UPDATE",
+                Integer.class, ids.toArray());
+    }
+
+    private static String placeholders(Collection<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> args, String column, Boolean value) {
+        if (value != null) {
+            sql.append(" AND ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+}
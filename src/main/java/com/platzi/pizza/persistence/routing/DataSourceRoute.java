@@ -0,0 +1,6 @@
+package com.platzi.pizza.persistence.routing;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,35 @@
+package com.platzi.pizza.persistence.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Manda las transacciones de solo lectura a la réplica y todo lo demás al primario. Debe ir
+ * detrás de un LazyConnectionDataSourceProxy: así la conexión se pide en la primera sentencia,
+ * cuando la transacción ya sabe si es readOnly.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReadYourWritesTracker tracker;
+
+    public ReadWriteRoutingDataSource(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return tracker.isSticky() ? DataSourceRoute.PRIMARY : DataSourceRoute.REPLICA;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tracker.recordWrite();
+                }
+            });
+        }
+        return DataSourceRoute.PRIMARY;
+    }
+}
@@ -0,0 +1,77 @@
+package com.platzi.pizza.persistence.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Identifica al cliente de cada petición para la lectura de sus propias escrituras: el
+ * encabezado configurado (X-Client-Id por defecto) o, si no viene, una cookie con un id
+ * aleatorio que se emite en la primera respuesta. No se usa la dirección remota porque detrás
+ * de un NAT o un proxy muchos clientes comparten la misma y se volverían todos sticky.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    // Un id de cliente más largo no es uno emitido por este filtro.
+    private static final int MAX_CLIENT_LENGTH = 64;
+
+    private final ReadYourWritesTracker tracker;
+    private final String clientHeader;
+    private final String clientCookie;
+
+    @Autowired
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker,
+                                @Value("${pizzeria.datasource.replica.client-header:X-Client-Id}") String clientHeader,
+                                @Value("${pizzeria.datasource.replica.client-cookie:pizzeria_client}") String clientCookie) {
+        this.tracker = tracker;
+        this.clientHeader = clientHeader;
+        this.clientCookie = clientCookie;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        tracker.bind(resolveClient(request, response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tracker.unbind();
+        }
+    }
+
+    private String resolveClient(HttpServletRequest request, HttpServletResponse response) {
+        String client = request.getHeader(clientHeader);
+        if (isValid(client)) {
+            return client;
+        }
+        Cookie cookie = WebUtils.getCookie(request, clientCookie);
+        if (cookie != null && isValid(cookie.getValue())) {
+            return cookie.getValue();
+        }
+
+        String issued = UUID.randomUUID().toString();
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(clientCookie, issued)
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build()
+                .toString());
+        return issued;
+    }
+
+    private static boolean isValid(String client) {
+        return client != null && !client.isBlank() && client.length() <= MAX_CLIENT_LENGTH;
+    }
+}
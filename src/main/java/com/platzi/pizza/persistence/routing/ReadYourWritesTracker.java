@@ -0,0 +1,75 @@
+package com.platzi.pizza.persistence.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recuerda qué clientes escribieron hace poco. Mientras dure la ventana (un poco más que el
+ * retraso esperado de la réplica) sus lecturas siguen yendo al primario, así ven lo que acaban
+ * de guardar. El cliente de cada petición lo fija ReadYourWritesFilter.
+ */
+@Component
+public class ReadYourWritesTracker {
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentClient = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(@Value("${pizzeria.datasource.replica.sticky-window:2s}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void bind(String client) {
+        currentClient.set(client);
+    }
+
+    public void unbind() {
+        currentClient.remove();
+    }
+
+    /**
+     * Cliente de la petición en curso, o null fuera de una petición. El trabajo que se encola para
+     * otro hilo lo guarda y luego lo pasa a {@link #recordWrite(String)}.
+     */
+    public String currentClient() {
+        return currentClient.get();
+    }
+
+    /**
+     * Marca que el cliente actual confirmó una escritura. Sin cliente (tareas en segundo plano) no hace nada.
+     */
+    public void recordWrite() {
+        recordWrite(currentClient.get());
+    }
+
+    /**
+     * Marca que el cliente dado confirmó una escritura, hecha desde cualquier hilo.
+     */
+    public void recordWrite(String client) {
+        if (client != null && windowNanos > 0) {
+            lastWrites.put(client, System.nanoTime());
+        }
+    }
+
+    /**
+     * Indica si las lecturas del cliente actual deben ir al primario.
+     */
+    public boolean isSticky() {
+        String client = currentClient.get();
+        if (client == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(client);
+        return lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${pizzeria.datasource.replica.sticky-window:2s}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+}
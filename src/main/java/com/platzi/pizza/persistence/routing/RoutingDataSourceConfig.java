@@ -0,0 +1,61 @@
+package com.platzi.pizza.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Se activa al configurar pizzeria.datasource.replica.url. Arma un pool para el primario
+ * (spring.datasource.*) y otro para la réplica (pizzeria.datasource.replica.*, con el usuario
+ * y la contraseña del primario si no se indican) y expone como DataSource principal el enrutador.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pizzeria.datasource.replica.url")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, Binder.get(environment), "spring.datasource.hikari", "primary");
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties, Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties properties = binder.bind("pizzeria.datasource.replica", DataSourceProperties.class).get();
+        if (properties.getUsername() == null) {
+            properties.setUsername(primaryProperties.determineUsername());
+            properties.setPassword(primaryProperties.determinePassword());
+        }
+        return pool(properties, binder, "pizzeria.datasource.replica.hikari", "replica");
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesTracker tracker) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(tracker);
+        routing.setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String hikariPrefix, String name) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(hikariPrefix, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
@@ -1,26 +1,45 @@
 package com.platzi.pizza.service;
 
 import com.platzi.pizza.persistence.entity.CustomerEntity;
+import com.platzi.pizza.persistence.projection.CustomerListItem;
 import com.platzi.pizza.persistence.repository.CustomerRepository;
+import com.platzi.pizza.service.cache.CustomerLookupCache;
+import com.platzi.pizza.service.dto.CacheStatsDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class CustomerService {
     private final CustomerRepository customerRepository;
+    private final CustomerLookupCache customerLookupCache;
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, CustomerLookupCache customerLookupCache) {
         this.customerRepository = customerRepository;
+        this.customerLookupCache = customerLookupCache;
     }
 
+    // Sin readOnly: lo que no está en caché se lee del primario y no de la réplica, porque lo que se
+    // lee aquí se guarda en la caché. Los aciertos no piden conexión.
+    @Transactional
     public CustomerEntity getByPhone(String phone){
-        return customerRepository.findByPhone(phone);
+        return customerLookupCache.getByPhone(phone, customerRepository::findByPhone);
     }
 
-    public List<CustomerEntity> getAll() {
-        return customerRepository.findAll();
+    @Transactional
+    public CustomerEntity get(String idCustomer){
+        return customerLookupCache.getById(idCustomer, () -> customerRepository.findById(idCustomer).orElse(null));
+    }
+
+    public CacheStatsDto getCacheStats(){
+        return customerLookupCache.getStats();
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomerListItem> getAll() {
+        return customerRepository.findAllListItems();
     }
 }
@@ -0,0 +1,195 @@
+package com.platzi.pizza.service;
+
+import com.platzi.pizza.persistence.entity.IdempotencyKeyEntity;
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderItemEntity;
+import com.platzi.pizza.persistence.repository.IdempotencyKeyRepository;
+import com.platzi.pizza.persistence.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * POST /api/orders con encabezado Idempotency-Key. Los reintentos con la misma clave se juntan
+ * en una sola inserción:
+ * <ul>
+ *     <li>En memoria, un ConcurrentHashMap (bloquea solo la entrada de la clave, no el mapa) guarda
+ *     el resultado en curso o ya terminado durante ttl; los reintentos concurrentes esperan ese resultado.</li>
+ *     <li>En la base, la tabla idempotency_key se escribe en la misma transacción que la orden y su
+ *     clave primaria cubre los reintentos que llegan a otra instancia o después de ttl.</li>
+ * </ul>
+ * Junto a la clave se guarda una huella de la petición (cliente, método, notas e items). Una clave
+ * ya usada con otra huella no devuelve la orden anterior: es otra petición y se rechaza.
+ */
+@Service
+public class IdempotentOrderService {
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate writeTransaction;
+    private final long ttlNanos;
+    private final Duration retention;
+
+    private final Map<String, Submission> submissions = new ConcurrentHashMap<>();
+
+    public record Result(OrderEntity order, boolean replayed) {
+    }
+
+    /**
+     * La clave ya se usó con otra petición.
+     */
+    public static class KeyReusedException extends IllegalStateException {
+        KeyReusedException(String idempotencyKey) {
+            super("Idempotency key " + idempotencyKey + " was used with a different request");
+        }
+    }
+
+    private record Submission(CompletableFuture<OrderEntity> result, String fingerprint, long expiresAt) {
+        boolean isExpired(long now) {
+            return result.isDone() && now - expiresAt >= 0;
+        }
+    }
+
+    @Autowired
+    public IdempotentOrderService(OrderService orderService, OrderRepository orderRepository,
+                                  IdempotencyKeyRepository idempotencyKeyRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${pizzeria.orders.idempotency.ttl:10m}") Duration ttl,
+                                  @Value("${pizzeria.orders.idempotency.retention:24h}") Duration retention) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.ttlNanos = ttl.toNanos();
+        this.retention = retention;
+    }
+
+    /**
+     * Guarda la orden una sola vez por clave.
+     * @return La orden creada por la primera petición con esta clave; replayed indica si esta
+     * petición reutilizó un resultado en lugar de insertar.
+     * @throws KeyReusedException Si la clave ya se usó con una petición distinta.
+     */
+    public Result save(String idempotencyKey, OrderEntity order) {
+        String fingerprint = fingerprint(order);
+        CompletableFuture<OrderEntity> mine = new CompletableFuture<>();
+        Submission submission = new Submission(mine, fingerprint, System.nanoTime() + ttlNanos);
+
+        Submission current = submissions.compute(idempotencyKey, (key, existing) ->
+                existing == null || existing.isExpired(System.nanoTime()) ? submission : existing);
+        if (current != submission) {
+            if (!current.fingerprint().equals(fingerprint)) {
+                throw new KeyReusedException(idempotencyKey);
+            }
+            return new Result(await(current.result()), true);
+        }
+
+        try {
+            Result result = insertOnce(idempotencyKey, fingerprint, order);
+            mine.complete(result.order());
+            return result;
+        } catch (RuntimeException e) {
+            // No se guarda el fallo: el siguiente reintento vuelve a intentar la inserción.
+            submissions.remove(idempotencyKey, submission);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Result insertOnce(String idempotencyKey, String fingerprint, OrderEntity order) {
+        // Las búsquedas van en transacción de escritura para leer del primario y no de la réplica.
+        OrderEntity previous = writeTransaction.execute(status -> findByKey(idempotencyKey, fingerprint));
+        if (previous != null) {
+            return new Result(previous, true);
+        }
+
+        try {
+            OrderEntity saved = writeTransaction.execute(status -> {
+                OrderEntity created = orderService.save(order);
+                idempotencyKeyRepository.insert(idempotencyKey, created.getIdOrder(), fingerprint, LocalDateTime.now());
+                return created;
+            });
+            return new Result(saved, false);
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia registró la clave primero; su transacción ya está confirmada.
+            OrderEntity winner = writeTransaction.execute(status -> findByKey(idempotencyKey, fingerprint));
+            if (winner == null) {
+                throw e;
+            }
+            return new Result(winner, true);
+        }
+    }
+
+    private OrderEntity findByKey(String idempotencyKey, String fingerprint) {
+        IdempotencyKeyEntity stored = idempotencyKeyRepository.findById(idempotencyKey).orElse(null);
+        if (stored == null) {
+            return null;
+        }
+        if (!fingerprint.equals(stored.getRequestHash())) {
+            throw new KeyReusedException(idempotencyKey);
+        }
+        return orderRepository.findById(stored.getIdOrder()).orElse(null);
+    }
+
+    // SHA-256 de los campos que envía el cliente; los items se ordenan por idItem.
+    static String fingerprint(OrderEntity order) {
+        StringBuilder request = new StringBuilder()
+                .append(order.getIdCustomer()).append('|')
+                .append(order.getMethod()).append('|')
+                .append(order.getDate()).append('|')
+                .append(order.getTotal()).append('|')
+                .append(order.getAdditionalNotes());
+        List<OrderItemEntity> items = order.getItems() != null ? order.getItems() : List.of();
+        items.stream()
+                .sorted(Comparator.comparing(OrderItemEntity::getIdItem, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(item -> request.append('|').append(item.getIdItem())
+                        .append(':').append(item.getIdPizza())
+                        .append(':').append(item.getQuantity())
+                        .append(':').append(item.getPrice()));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(request.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OrderEntity await(CompletableFuture<OrderEntity> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pizzeria.orders.idempotency.purge-interval:1m}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        submissions.values().removeIf(submission -> submission.isExpired(now));
+    }
+
+    @Scheduled(fixedDelayString = "${pizzeria.orders.idempotency.purge-interval:1m}")
+    public void purgeDurableKeys() {
+        idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+    }
+}
@@ -0,0 +1,211 @@
+package com.platzi.pizza.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderIngestFailureEntity;
+import com.platzi.pizza.persistence.repository.OrderIngestFailureRepository;
+import com.platzi.pizza.persistence.routing.ReadYourWritesTracker;
+import com.platzi.pizza.service.dto.IngestionResultDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingesta de órdenes en bloque para los agregadores. Las órdenes se encolan en una cola acotada
+ * y un hilo de escritura las guarda en lotes cuando se junta batch-size órdenes o pasa
+ * flush-interval, lo que ocurra primero. Con la cola llena se rechaza (backpressure) en lugar
+ * de abrir más conexiones. Una orden aceptada que no se puede guardar queda en order_ingest_failure.
+ * Cada orden lleva el cliente que la envió: al guardarse se le marca la escritura, así sus
+ * lecturas siguientes van al primario aunque la escritura la haya hecho otro hilo.
+ */
+@Service
+public class OrderIngestionService {
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestionService.class);
+
+    private final OrderService orderService;
+    private final OrderIngestFailureRepository failureRepository;
+    private final ObjectMapper objectMapper;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Counter failed;
+    private final BlockingQueue<Submission> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public OrderIngestionService(OrderService orderService, OrderIngestFailureRepository failureRepository,
+                                 ObjectMapper objectMapper, ReadYourWritesTracker readYourWritesTracker,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${pizzeria.orders.ingest.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${pizzeria.orders.ingest.batch-size:200}") int batchSize,
+                                 @Value("${pizzeria.orders.ingest.flush-interval:200ms}") Duration flushInterval,
+                                 @Value("${pizzeria.orders.ingest.offer-timeout:100ms}") Duration offerTimeout) {
+        this.orderService = orderService;
+        this.failureRepository = failureRepository;
+        this.objectMapper = objectMapper;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.failed = Counter.builder("pizzeria.orders.ingest.failed")
+                .description("Accepted bulk orders that could not be saved")
+                .register(meterRegistry);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "order-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Lo que quedó en la cola se guarda antes de cerrar.
+        List<Submission> pending = new ArrayList<>();
+        while (queue.drainTo(pending, batchSize) > 0) {
+            persist(pending);
+            pending = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Encola las órdenes. Si la cola sigue llena después de offer-timeout se deja de aceptar.
+     * @return Cuántas órdenes se aceptaron y cuántas se rechazaron.
+     */
+    public IngestionResultDto submit(List<OrderEntity> orders) throws InterruptedException {
+        // El cliente está ligado al hilo de la petición; el hilo de escritura lo recibe con cada orden.
+        String client = readYourWritesTracker.currentClient();
+        int accepted = 0;
+        for (OrderEntity order : orders) {
+            if (!queue.offer(new Submission(order, client), offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                break;
+            }
+            accepted++;
+        }
+        return new IngestionResultDto(accepted, orders.size() - accepted);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public List<OrderIngestFailureEntity> getFailures() {
+        return failureRepository.findAll();
+    }
+
+    public boolean discardFailure(long idFailure) {
+        if (!failureRepository.existsById(idFailure)) {
+            return false;
+        }
+        failureRepository.deleteById(idFailure);
+        return true;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                Submission first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<Submission> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Submission next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void persist(List<Submission> batch) {
+        try {
+            orderService.saveAll(batch.stream().map(Submission::order).toList());
+            batch.stream().map(Submission::client).distinct().forEach(readYourWritesTracker::recordWrite);
+        } catch (RuntimeException e) {
+            // Si el lote falla se reintenta orden por orden para no perder las válidas.
+            log.warn("Order batch of {} failed, retrying one by one", batch.size(), e);
+            for (Submission submission : batch) {
+                OrderEntity order = submission.order();
+                try {
+                    order.setIdOrder(null);
+                    orderService.save(order);
+                    readYourWritesTracker.recordWrite(submission.client());
+                } catch (RuntimeException single) {
+                    recordFailure(order, single);
+                }
+            }
+        }
+    }
+
+    // El cliente ya recibió 202: la orden se guarda aparte para revisarla o reenviarla, no se descarta.
+    private void recordFailure(OrderEntity order, RuntimeException cause) {
+        failed.increment();
+        order.setIdOrder(null); // Así el JSON se puede reenviar tal cual a /bulk.
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            payload = String.valueOf(order.getIdCustomer());
+        }
+
+        String error = String.valueOf(NestedExceptionUtils.getMostSpecificCause(cause).getMessage());
+        OrderIngestFailureEntity failure = new OrderIngestFailureEntity();
+        failure.setIdCustomer(order.getIdCustomer());
+        failure.setPayload(payload);
+        failure.setError(error.length() > OrderIngestFailureEntity.MAX_ERROR_LENGTH
+                ? error.substring(0, OrderIngestFailureEntity.MAX_ERROR_LENGTH) : error);
+        failure.setFailedAt(LocalDateTime.now());
+        try {
+            failureRepository.save(failure);
+            log.warn("Could not ingest order for customer {}, kept as failure {}", order.getIdCustomer(), failure.getIdFailure(), cause);
+        } catch (RuntimeException e) {
+            // Sin base tampoco se puede guardar la falla; queda la orden completa en el log.
+            log.error("Could not ingest order {} nor record the failure", payload, cause);
+        }
+    }
+
+    // client es null si la orden no vino de una petición web.
+    private record Submission(OrderEntity order, String client) {
+    }
+}
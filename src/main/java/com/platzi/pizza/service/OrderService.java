@@ -1,20 +1,38 @@
 package com.platzi.pizza.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderItemEntity;
 import com.platzi.pizza.persistence.projection.OrderSumary;
 import com.platzi.pizza.persistence.repository.OrderRepository;
-import com.sun.jdi.connect.AttachingConnector;
+import com.platzi.pizza.service.archive.OrderHistory;
+import com.platzi.pizza.service.dto.CursorPage;
+import com.platzi.pizza.service.dto.OrderDto;
+import com.platzi.pizza.service.event.OrdersSavedEvent;
+import com.platzi.pizza.service.pagination.ScrollCursorCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.query.Order;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.SpringVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @Getter
@@ -26,36 +44,153 @@ public class OrderService {
     private static final String CARRYOUT = "C";
     private static final String ON_SITE = "S";
 
+    private final ObjectMapper objectMapper;
+
+    private final ScrollCursorCodec cursorCodec;
+
+    private final OrderSummaryStore orderSummaryStore;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Listados que también leen el archivo cuando el rango lo necesita.
+    private final OrderHistory orderHistory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Cada cuántas órdenes exportadas se vacía el contexto de persistencia.
+    @Value("${pizzeria.orders.export.clear-every:500}")
+    private int exportClearEvery;
+
     @Autowired
-    public OrderService(OrderRepository orderRepository){
+    public OrderService(OrderRepository orderRepository, ObjectMapper objectMapper, ScrollCursorCodec cursorCodec,
+                        OrderSummaryStore orderSummaryStore, ApplicationEventPublisher eventPublisher,
+                        OrderHistory orderHistory){
         this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.cursorCodec = cursorCodec;
+        this.orderSummaryStore = orderSummaryStore;
+        this.eventPublisher = eventPublisher;
+        this.orderHistory = orderHistory;
     }
 
-    public List<OrderEntity> getAll(){
-        return orderRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<OrderDto> getAll(){
+        return OrderDto.fromLines(orderHistory.findAllLines());
     }
 
-    public List<OrderEntity> getTodayOrders(){
+    /**
+     * Recorre las órdenes por fecha usando un cursor en lugar de OFFSET.
+     * @param cursor Token de la página anterior, o null para empezar.
+     * @param withTotal Si se debe calcular el total de órdenes.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderEntity> scroll(String cursor, int elements, String sortDirection, boolean withTotal){
+        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), "date");
+        ScrollPosition position = cursorCodec.decode(cursor, OrderEntity.class, sort, Set.of("date", "idOrder"));
+
+        Window<OrderEntity> window = orderRepository.findAllBy(position, sort, Limit.of(elements));
+        Long total = withTotal ? orderRepository.count() : null;
+        return new CursorPage<>(window.getContent(), cursorCodec.next(window, sort), total);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDto> getTodayOrders(){
         LocalDateTime today = LocalDateTime.now();
-        return orderRepository.findByDateAfter(today);
+        return OrderDto.fromLines(orderHistory.findLinesByDateAfter(today));
     }
 
-    public List<OrderEntity> getOutsideOrders(){
+    @Transactional(readOnly = true)
+    public List<OrderDto> getOutsideOrders(){
         List<String> methods = Arrays.asList(DELIVERY,CARRYOUT);
-        return orderRepository.findByMethodIn(methods);
+        return OrderDto.fromLines(orderHistory.findLinesByMethodIn(methods));
     }
 
 
+    /**
+     * Guarda la orden junto con sus items y su resumen en una sola transacción.
+     */
+    @Transactional
     public OrderEntity save(OrderEntity orderEntity){
-        return orderRepository.save(orderEntity);
+        persistWithItems(orderEntity);
+        orderSummaryStore.write(List.of(orderEntity));
+        eventPublisher.publishEvent(new OrdersSavedEvent(List.of(orderEntity)));
+        return orderEntity;
     }
 
-    public List<OrderEntity> getCustomerOrders(String idCustomer){
-        return orderRepository.findCustomerOrders(idCustomer);
+    /**
+     * Guarda varias órdenes con sus items en una sola transacción. Los ids salen del
+     * generador por bloques de OrderEntity, así Hibernate puede agrupar los INSERT
+     * de pizza_order y de order_item en lotes JDBC.
+     */
+    @Transactional
+    public List<OrderEntity> saveAll(List<OrderEntity> orders){
+        for (OrderEntity order : orders) {
+            persistWithItems(order);
+        }
+        orderSummaryStore.write(orders);
+        eventPublisher.publishEvent(new OrdersSavedEvent(orders));
+        return orders;
+    }
+
+    private void persistWithItems(OrderEntity order){
+        entityManager.persist(order);
+
+        if (order.getItems() == null) {
+            return;
+        }
+        int nextItem = 1;
+        for (OrderItemEntity item : order.getItems()) {
+            item.setIdOrder(order.getIdOrder());
+            if (item.getIdItem() == null) {
+                item.setIdItem(nextItem);
+            }
+            nextItem = Math.max(nextItem, item.getIdItem()) + 1;
+            entityManager.persist(item);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDto> getCustomerOrders(String idCustomer){
+        return OrderDto.fromLines(orderHistory.findCustomerOrderLines(idCustomer));
     }
 
     public OrderSumary getSummary(int orderId){
-        return orderRepository.findSummary(orderId);
+        return orderSummaryStore.get(orderId);
+    }
+
+    public List<OrderSumary> getSummaries(List<Integer> orderIds){
+        return orderSummaryStore.getAll(orderIds);
+    }
+
+    /**
+     * Escribe las órdenes del rango como NDJSON (una orden por línea) con memoria constante:
+     * se leen con un cursor y el contexto de persistencia se vacía cada pocas filas.
+     * @param from Fecha inicial incluida, o null para no limitar.
+     * @param to Fecha final excluida, o null para usar el momento actual.
+     * @param methods Métodos de entrega a incluir, o null/vacío para todos.
+     * @param output Flujo de salida de la respuesta.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDateTime from, LocalDateTime to, List<String> methods, OutputStream output) throws IOException {
+        LocalDateTime start = from != null ? from : LocalDate.EPOCH.atStartOfDay();
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        List<String> selected = methods == null || methods.isEmpty() ? Arrays.asList(DELIVERY, CARRYOUT, ON_SITE) : methods;
+
+        BufferedOutputStream buffer = new BufferedOutputStream(output);
+        try (Stream<OrderEntity> orders = orderHistory.streamByDateAndMethod(start, end, selected)) {
+            int written = 0;
+            for (OrderEntity order : (Iterable<OrderEntity>) orders::iterator) {
+                buffer.write(objectMapper.writeValueAsBytes(order));
+                buffer.write('\n');
+
+                if (++written % exportClearEvery == 0) {
+                    buffer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        buffer.flush();
     }
 
 }
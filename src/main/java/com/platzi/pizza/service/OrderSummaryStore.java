@@ -0,0 +1,147 @@
+package com.platzi.pizza.service;
+
+import com.platzi.pizza.persistence.entity.CustomerEntity;
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderItemEntity;
+import com.platzi.pizza.persistence.entity.OrderSummaryEntity;
+import com.platzi.pizza.persistence.projection.OrderSumary;
+import com.platzi.pizza.persistence.repository.CustomerRepository;
+import com.platzi.pizza.persistence.repository.OrderSummaryRepository;
+import com.platzi.pizza.service.cache.LruTtlCache;
+import com.platzi.pizza.service.dto.PizzaDto;
+import com.platzi.pizza.service.event.OrdersSavedEvent;
+import com.platzi.pizza.service.menu.MenuCache;
+import com.platzi.pizza.service.menu.MenuSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Resúmenes de órdenes materializados en order_summary. Se calculan al guardar la orden y las
+ * órdenes anteriores a esta tabla se completaron en la migración V4; leer nunca escribe.
+ * La búsqueda va en una transacción de solo lectura (réplica). Los ids sin resumen (inexistentes,
+ * sin items o sin cliente) se recuerdan durante negative-ttl para no volver a consultarlos.
+ */
+@Component
+public class OrderSummaryStore {
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final CustomerRepository customerRepository;
+    private final MenuCache menuCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LruTtlCache<Integer, Boolean> misses;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public OrderSummaryStore(OrderSummaryRepository orderSummaryRepository, CustomerRepository customerRepository,
+                             MenuCache menuCache, PlatformTransactionManager transactionManager,
+                             @Value("${pizzeria.orders.summary.negative-max-size:10000}") int negativeMaxSize,
+                             @Value("${pizzeria.orders.summary.negative-ttl:30s}") Duration negativeTtl) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.customerRepository = customerRepository;
+        this.menuCache = menuCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.misses = new LruTtlCache<>(negativeMaxSize, negativeTtl.toNanos(), new LongAdder());
+    }
+
+    /**
+     * Calcula y guarda el resumen de las órdenes recién insertadas. Debe llamarse dentro de la
+     * transacción que guarda las órdenes. Como en findSummary, se omiten las órdenes sin cliente o sin items.
+     */
+    public void write(List<OrderEntity> orders) {
+        Set<String> customerIds = orders.stream().map(OrderEntity::getIdCustomer).collect(Collectors.toSet());
+        Map<String, String> customerNames = new HashMap<>();
+        for (CustomerEntity customer : customerRepository.findAllById(customerIds)) {
+            customerNames.put(customer.getIdCustomer(), customer.getName());
+        }
+
+        MenuSnapshot menu = menuCache.current();
+        for (OrderEntity order : orders) {
+            String customerName = customerNames.get(order.getIdCustomer());
+            if (customerName == null || order.getItems() == null || order.getItems().isEmpty()) {
+                continue;
+            }
+
+            List<String> pizzaNames = new ArrayList<>(order.getItems().size());
+            for (OrderItemEntity item : order.getItems()) {
+                menu.get(item.getIdPizza()).map(PizzaDto::name).ifPresent(pizzaNames::add);
+            }
+
+            OrderSummaryEntity summary = new OrderSummaryEntity();
+            summary.setIdOrder(order.getIdOrder());
+            summary.setCustomerName(customerName);
+            summary.setOrderDate(order.getDate());
+            summary.setOrderTotal(order.getTotal());
+            summary.setPizzaNames(truncate(String.join(",", pizzaNames)));
+            entityManager.persist(summary);
+        }
+    }
+
+    // Igual que LEFT(..., 1000) en V4: una orden muy grande no debe hacer fallar su propio INSERT.
+    private static String truncate(String pizzaNames) {
+        return pizzaNames.length() > OrderSummaryEntity.MAX_PIZZA_NAMES_LENGTH
+                ? pizzaNames.substring(0, OrderSummaryEntity.MAX_PIZZA_NAMES_LENGTH)
+                : pizzaNames;
+    }
+
+    /**
+     * Resumen guardado de la orden, o null si no existe. No escribe: los resúmenes que faltaban se
+     * calcularon una sola vez en la migración V4 y las órdenes nuevas lo guardan al confirmarse.
+     */
+    public OrderSumary get(int orderId) {
+        if (misses.get(orderId) != null) {
+            return null;
+        }
+        OrderSumary stored = readOnlyTransaction.execute(status -> orderSummaryRepository.findById(orderId).orElse(null));
+        if (stored == null) {
+            misses.put(orderId, Boolean.TRUE);
+        }
+        return stored;
+    }
+
+    /**
+     * Resúmenes de varias órdenes con una sola consulta por clave. Los ids que no existen se omiten.
+     */
+    public List<OrderSumary> getAll(List<Integer> orderIds) {
+        Set<Integer> lookup = new HashSet<>();
+        for (Integer orderId : orderIds) {
+            if (misses.get(orderId) == null) {
+                lookup.add(orderId);
+            }
+        }
+        if (lookup.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<OrderSumary> summaries = new ArrayList<>(
+                readOnlyTransaction.execute(status -> orderSummaryRepository.findAllById(lookup)));
+        summaries.forEach(summary -> lookup.remove(summary.getIdOrder()));
+        lookup.forEach(orderId -> misses.put(orderId, Boolean.TRUE));
+        return summaries;
+    }
+
+    // Una orden recién confirmada deja de ser un fallo recordado.
+    @TransactionalEventListener
+    public void onOrdersSaved(OrdersSavedEvent event) {
+        for (OrderEntity order : event.orders()) {
+            misses.remove(order.getIdOrder());
+        }
+    }
+}
@@ -1,22 +1,45 @@
 package com.platzi.pizza.service;
 
+import com.platzi.pizza.persistence.audit.AuditEvent;
+import com.platzi.pizza.persistence.audit.AuditJournal;
+import com.platzi.pizza.persistence.cache.SecondLevelCache;
+import com.platzi.pizza.persistence.entity.PizzaAuditEntity;
 import com.platzi.pizza.persistence.entity.PizzaEntity;
+import com.platzi.pizza.persistence.projection.PizzaListItem;
+import com.platzi.pizza.persistence.repository.PizzaAuditRepository;
 import com.platzi.pizza.persistence.repository.PizzaPageSortRepository;
+import com.platzi.pizza.persistence.repository.PizzaPriceBatchRepository;
 import com.platzi.pizza.persistence.repository.PizzaRepository;
+import com.platzi.pizza.service.dto.BulkPriceUpdateDto;
+import com.platzi.pizza.service.dto.CursorPage;
+import com.platzi.pizza.service.dto.PizzaDto;
+import com.platzi.pizza.service.dto.PriceUpdateResultDto;
 import com.platzi.pizza.service.dto.UpdatePizzaPriceDto;
-import jakarta.transaction.Transactional;
+import com.platzi.pizza.service.menu.IngredientIndex;
+import com.platzi.pizza.service.menu.MenuCache;
+import com.platzi.pizza.service.menu.MenuChangedEvent;
+import com.platzi.pizza.service.menu.MenuSnapshot;
+import com.platzi.pizza.service.pagination.ScrollCursorCodec;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.data.web.SpringDataWebProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 // Indica que esta clase es un servicio de Spring que contiene la lógica de negocio relacionada con las pizzas.
 @Service
@@ -28,11 +51,44 @@ public class PizzaService {
 
     private final PizzaPageSortRepository pizzaPageAndSortingRepository;
 
+    // Actualizaciones de precio en lote con JDBC.
+    private final PizzaPriceBatchRepository pizzaPriceBatchRepository;
+
+    // Foto en memoria del menú que responde las lecturas sin consultar la base de datos.
+    private final MenuCache menuCache;
+
+    // Índice invertido de ingredientes para las búsquedas por descripción.
+    private final IngredientIndex ingredientIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ScrollCursorCodec cursorCodec;
+
+    // Historial de cambios de las pizzas.
+    private final AuditJournal auditJournal;
+
+    private final PizzaAuditRepository pizzaAuditRepository;
+
+    // Caché de segundo nivel: los UPDATE por JDBC deben desalojar las pizzas a mano.
+    private final SecondLevelCache secondLevelCache;
+
     // Constructor que utiliza inyección de dependencias para inicializar el repositorio.
     @Autowired
-    public PizzaService(PizzaRepository pizzaRepository, PizzaPageSortRepository pizzaPageAndSortingRepository) {
+    public PizzaService(PizzaRepository pizzaRepository, PizzaPageSortRepository pizzaPageAndSortingRepository,
+                        PizzaPriceBatchRepository pizzaPriceBatchRepository, MenuCache menuCache, IngredientIndex ingredientIndex,
+                        ApplicationEventPublisher eventPublisher, ScrollCursorCodec cursorCodec,
+                        AuditJournal auditJournal, PizzaAuditRepository pizzaAuditRepository,
+                        SecondLevelCache secondLevelCache) {
         this.pizzaRepository = pizzaRepository;
         this.pizzaPageAndSortingRepository = pizzaPageAndSortingRepository;
+        this.pizzaPriceBatchRepository = pizzaPriceBatchRepository;
+        this.menuCache = menuCache;
+        this.ingredientIndex = ingredientIndex;
+        this.eventPublisher = eventPublisher;
+        this.cursorCodec = cursorCodec;
+        this.auditJournal = auditJournal;
+        this.pizzaAuditRepository = pizzaAuditRepository;
+        this.secondLevelCache = secondLevelCache;
     }
 
 
@@ -40,29 +96,101 @@ public class PizzaService {
      * Obtiene una lista de todas las pizzas almacenadas en la base de datos.
      * @return Lista de todas las pizzas.
      */
-    public Page<PizzaEntity> getAll(int page, int elements){
-        Pageable pageRequest = PageRequest.of(page, elements);
-        return this.pizzaPageAndSortingRepository.findAll(pageRequest);
+    public Page<PizzaListItem> getAll(int page, int elements){
+        return getAll(menuCache.current(), page, elements);
+    }
+
+    /**
+     * Página del listado completo armada desde una foto dada del menú, ordenada por idPizza.
+     */
+    public Page<PizzaListItem> getAll(MenuSnapshot menu, int page, int elements){
+        return menu.findAll(PageRequest.of(page, elements));
     }
 
     /**
      * Obtiene una lista de todas las pizzas disponibles ordenadas por precio.
      * @return Lista de pizzas disponibles.
      */
-    public Page<PizzaEntity> getAvailable(int page, int elements, String sortBy, String sortDireccion){
+    public Page<PizzaDto> getAvailable(int page, int elements, String sortBy, String sortDireccion){
+        return getAvailable(menuCache.current(), page, elements, sortBy, sortDireccion);
+    }
+
+    /**
+     * Página de disponibles armada desde una foto dada del menú.
+     * @throws IllegalArgumentException Si sortBy no es una propiedad ordenable o la dirección no es ASC/DESC.
+     */
+    public Page<PizzaDto> getAvailable(MenuSnapshot menu, int page, int elements, String sortBy, String sortDireccion){
+        if (!MenuSnapshot.isSortable(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + sortBy);
+        }
         Sort sort = Sort.by(Sort.Direction.fromString(sortDireccion), sortBy);
-        Pageable pageRequest = PageRequest.of(page, elements, sort);
+        return menu.findAvailable(PageRequest.of(page, elements, sort));
+    }
+
+
+    /**
+     * Recorre todas las pizzas por cursor: cada página continúa después del último elemento
+     * de la anterior, así las páginas profundas cuestan lo mismo que la primera.
+     * @param cursor Token de la página anterior, o null para empezar.
+     * @param withTotal Si se debe calcular el total de pizzas (una consulta COUNT extra).
+     * @return Página con el token para pedir la siguiente.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PizzaDto> scrollAll(String cursor, int elements, String sortBy, String sortDirection, boolean withTotal){
+        Sort sort = scrollSort(sortBy, sortDirection);
+        ScrollPosition position = cursorCodec.decode(cursor, PizzaEntity.class, sort, Set.copyOf(List.of(sortBy, "idPizza")));
+
+        Window<PizzaEntity> window = pizzaPageAndSortingRepository.findAllBy(position, sort, Limit.of(elements));
+        Long total = withTotal ? pizzaRepository.count() : null;
+        return new CursorPage<>(window.map(PizzaDto::fromEntity).getContent(), cursorCodec.next(window, sort), total);
+    }
 
-        return pizzaPageAndSortingRepository.findByAvailableTrue(pageRequest);
+    /**
+     * Recorre por cursor las pizzas disponibles.
+     * @see #scrollAll(String, int, String, String, boolean)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PizzaDto> scrollAvailable(String cursor, int elements, String sortBy, String sortDirection, boolean withTotal){
+        Sort sort = scrollSort(sortBy, sortDirection);
+        ScrollPosition position = cursorCodec.decode(cursor, PizzaEntity.class, sort, Set.copyOf(List.of(sortBy, "idPizza")));
+
+        Window<PizzaEntity> window = pizzaPageAndSortingRepository.findByAvailableTrue(position, sort, Limit.of(elements));
+        Long total = withTotal ? pizzaRepository.countByAvailableTrue() : null;
+        return new CursorPage<>(window.map(PizzaDto::fromEntity).getContent(), cursorCodec.next(window, sort), total);
+    }
+
+    // Se valida antes de consultar: una propiedad desconocida es un error del cliente (400), no de Spring Data (500).
+    private static Sort scrollSort(String sortBy, String sortDirection){
+        if (!MenuSnapshot.isSortable(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + sortBy);
+        }
+        return Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
     }
 
 
-    public List<PizzaEntity> getByDescription(String description){
-        return pizzaRepository.findAllByAvailableTrueAndDescriptionContainingIgnoreCase(description);
+    public List<PizzaDto> getByDescription(MenuSnapshot menu, String description){
+        return ingredientIndex.search(menu, List.of(description), List.of());
     }
 
-    public List<PizzaEntity> getWithOutIngredient(String ingredient){
-        return pizzaRepository.findByAvailableTrueAndDescriptionNotContainingIgnoreCase(ingredient);
+    public List<PizzaDto> getWithOutIngredient(MenuSnapshot menu, String ingredient){
+        return ingredientIndex.search(menu, List.of(), List.of(ingredient));
+    }
+
+    /**
+     * Busca las pizzas disponibles que llevan todos los ingredientes de with y ninguno de without.
+     * @param with Ingredientes que deben estar en la descripción.
+     * @param without Ingredientes que no deben estar en la descripción.
+     * @return Lista de pizzas que cumplen ambas condiciones.
+     */
+    public List<PizzaDto> getByIngredients(List<String> with, List<String> without){
+        return getByIngredients(menuCache.current(), with, without);
+    }
+
+    /**
+     * Igual que {@link #getByIngredients(List, List)} sobre una foto dada del menú.
+     */
+    public List<PizzaDto> getByIngredients(MenuSnapshot menu, List<String> with, List<String> without){
+        return ingredientIndex.search(menu, with, without);
     }
 
     /**
@@ -70,8 +198,12 @@ public class PizzaService {
      * @param name Nombre de la pizza.
      * @return Entidad de la pizza si existe, de lo contrario, null.
      */
-    public Optional<PizzaEntity> getByPizzaName(String name){
-        return pizzaRepository.findFirstByAvailableTrueAndNameIgnoreCase(name);
+    public Optional<PizzaDto> getByPizzaName(String name){
+        return getByPizzaName(menuCache.current(), name);
+    }
+
+    public Optional<PizzaDto> getByPizzaName(MenuSnapshot menu, String name){
+        return menu.findAvailableByName(name);
     }
 
     /**
@@ -79,16 +211,28 @@ public class PizzaService {
      * @param pizzaId ID de la pizza.
      * @return Entidad de la pizza si existe, de lo contrario, null.
      */
+    @Transactional(readOnly = true)
     public PizzaEntity get(int pizzaId){
         return this.pizzaRepository.findById(pizzaId).orElse(null);
     }
 
+    /**
+     * Foto vigente del menú. Su ETag y su fecha de modificación versionan las respuestas del menú.
+     */
+    public MenuSnapshot getMenu(){
+        return menuCache.current();
+    }
+
     public int countVegan(){
-        return pizzaRepository.countByVeganTrue();
+        return menuCache.current().countVegan();
     }
 
-    public List<PizzaEntity> getCheapest(Double price){
-        return pizzaRepository.findTop3ByAvailableTrueAndPriceLessThanEqualOrderByPriceAsc(price);
+    public List<PizzaDto> getCheapest(Double price){
+        return getCheapest(menuCache.current(), price);
+    }
+
+    public List<PizzaDto> getCheapest(MenuSnapshot menu, Double price){
+        return menu.findCheapest(price, 3);
     }
 
     /**
@@ -97,7 +241,9 @@ public class PizzaService {
      * @return Entidad de la pizza después de ser guardada.
      */
     public PizzaEntity save(PizzaEntity pizzaEntity){
-        return this.pizzaRepository.save(pizzaEntity);
+        PizzaEntity saved = this.pizzaRepository.save(pizzaEntity);
+        eventPublisher.publishEvent(MenuChangedEvent.saved(saved));
+        return saved;
     }
 
     /**
@@ -116,11 +262,72 @@ public class PizzaService {
     public void delete(int idPizza){
         if(this.exist(idPizza)){
             pizzaRepository.deleteById(idPizza);
+            eventPublisher.publishEvent(MenuChangedEvent.deleted(idPizza));
         }
     }
 
+    /**
+     * Obtiene el historial de cambios de una pizza.
+     * @param idPizza ID de la pizza.
+     * @return Cambios registrados, del más reciente al más antiguo.
+     */
+    @Transactional(readOnly = true)
+    public List<PizzaAuditEntity> getHistory(int idPizza){
+        return pizzaAuditRepository.findByIdPizzaOrderByIdAuditDesc(idPizza);
+    }
+
     @Transactional
     public void updatePrice (UpdatePizzaPriceDto dto){
         pizzaRepository.updatePrice(dto);
+        auditPriceChange(dto);
+        eventPublisher.publishEvent(MenuChangedEvent.priceUpdated(dto.getPizzaId()));
+    }
+
+    /**
+     * Cambia varios precios en una sola transacción y un solo lote JDBC, con una sola consulta
+     * por clave para saber qué pizzas existen. Si viene un porcentaje se aplica a las pizzas que
+     * cumplan los filtros; si no, se aplica la lista de precios.
+     * @param dto Lista de precios o regla de porcentaje.
+     * @return Resultado por pizza, incluidos los ids que no existen.
+     */
+    @Transactional
+    public List<PriceUpdateResultDto> updatePrices(BulkPriceUpdateDto dto){
+        List<UpdatePizzaPriceDto> prices;
+        boolean[] found;
+        if (dto.getPercentage() != null) {
+            BigDecimal factor = BigDecimal.ONE.add(BigDecimal.valueOf(dto.getPercentage()).movePointLeft(2));
+            prices = pizzaPriceBatchRepository.applyFactor(factor, dto.getVegan(), dto.getVegetarian(), dto.getAvailable());
+            found = new boolean[prices.size()];
+            Arrays.fill(found, true);
+        } else {
+            prices = dto.getPrices() != null ? dto.getPrices() : List.of();
+            found = prices.isEmpty() ? new boolean[0] : pizzaPriceBatchRepository.updatePrices(prices);
+        }
+        if (prices.isEmpty()) {
+            return List.of();
+        }
+
+        List<PriceUpdateResultDto> results = new ArrayList<>(prices.size());
+        List<Integer> updated = new ArrayList<>(prices.size());
+        for (int i = 0; i < prices.size(); i++) {
+            results.add(new PriceUpdateResultDto(prices.get(i).getPizzaId(), prices.get(i).getNewPrice(), found[i]));
+            if (found[i]) {
+                updated.add(prices.get(i).getPizzaId());
+                auditPriceChange(prices.get(i));
+            }
+        }
+        secondLevelCache.evictPizzas(updated);
+
+        eventPublisher.publishEvent(MenuChangedEvent.pricesUpdated());
+        return results;
+    }
+
+    // Los UPDATE nativos y JDBC no pasan por los listeners de Hibernate: el precio anterior sale del menú en memoria.
+    private void auditPriceChange(UpdatePizzaPriceDto dto){
+        String oldPrice = menuCache.current().get(dto.getPizzaId())
+                .map(pizza -> String.valueOf(pizza.price()))
+                .orElse(null);
+        auditJournal.recordAfterCommit(new AuditEvent(dto.getPizzaId(), AuditEvent.UPDATE, "price", oldPrice,
+                String.valueOf(dto.getNewPrice()), LocalDateTime.now()));
     }
 }
@@ -0,0 +1,16 @@
+package com.platzi.pizza.service.analytics;
+
+public enum Granularity {
+    MINUTE(60, 24 * 60),
+    HOUR(60 * 60, 24 * 31),
+    DAY(24 * 60 * 60, 400);
+
+    // Tamaño del intervalo en segundos y cuántos intervalos se conservan.
+    final long bucketSeconds;
+    final int retention;
+
+    Granularity(long bucketSeconds, int retention) {
+        this.bucketSeconds = bucketSeconds;
+        this.retention = retention;
+    }
+}
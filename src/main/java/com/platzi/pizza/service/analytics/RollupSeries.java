@@ -0,0 +1,160 @@
+package com.platzi.pizza.service.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serie circular de acumulados por intervalo de tiempo guardada en arreglos primitivos: ingresos en
+ * centavos, órdenes por método y décimas de unidad por pizza. Cada pizza vendida recibe una columna
+ * compacta la primera vez que aparece, así el tamaño depende de cuántas pizzas se venden y no del
+ * valor de sus ids. Cuando llega un intervalo nuevo se reutiliza la posición del más antiguo.
+ */
+final class RollupSeries {
+    static final int METHODS = 3;
+    private static final int INITIAL_PIZZA_SLOTS = 64;
+
+    private final long bucketSeconds;
+    private final int capacity;
+    private final long[] bucketIds;
+    private final long[] revenueCents;
+    private final int[] orders;
+    private long[] unitTenths;
+    private int pizzaSlots;
+    // Columna de cada id_pizza y su inverso; usedSlots columnas asignadas de pizzaSlots.
+    private final Map<Integer, Integer> slotByPizza = new HashMap<>();
+    private int[] pizzaBySlot;
+    private int usedSlots;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    RollupSeries(Granularity granularity) {
+        this.bucketSeconds = granularity.bucketSeconds;
+        this.capacity = granularity.retention;
+        this.bucketIds = new long[capacity];
+        this.revenueCents = new long[capacity];
+        this.orders = new int[capacity * METHODS];
+        this.pizzaSlots = INITIAL_PIZZA_SLOTS;
+        this.unitTenths = new long[capacity * pizzaSlots];
+        this.pizzaBySlot = new int[pizzaSlots];
+        Arrays.fill(bucketIds, -1);
+    }
+
+    /**
+     * Suma una orden al intervalo que le corresponde. Se ignora si es más antigua que la retención.
+     * @param method 0 = D, 1 = C, 2 = S; -1 si no se reconoce.
+     */
+    void add(long epochSecond, long cents, int method, int[] pizzaIds, long[] tenths) {
+        long bucket = Math.floorDiv(epochSecond, bucketSeconds);
+        int slot = (int) Math.floorMod(bucket, (long) capacity);
+
+        lock.writeLock().lock();
+        try {
+            if (bucketIds[slot] > bucket) {
+                return;
+            }
+            if (bucketIds[slot] != bucket) {
+                reset(slot, bucket);
+            }
+
+            revenueCents[slot] += cents;
+            if (method >= 0) {
+                orders[slot * METHODS + method]++;
+            }
+            for (int i = 0; i < pizzaIds.length; i++) {
+                int column = column(pizzaIds[i]);
+                unitTenths[slot * pizzaSlots + column] += tenths[i];
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre los intervalos entre from (incluido) y to (excluido), en segundos epoch.
+     */
+    void forEachBucket(long fromEpochSecond, long toEpochSecond, BucketVisitor visitor) {
+        long first = Math.max(Math.floorDiv(fromEpochSecond, bucketSeconds), Math.floorDiv(toEpochSecond - 1, bucketSeconds) - capacity + 1);
+        long last = Math.floorDiv(toEpochSecond - 1, bucketSeconds);
+
+        lock.readLock().lock();
+        try {
+            for (long bucket = first; bucket <= last; bucket++) {
+                int slot = (int) Math.floorMod(bucket, (long) capacity);
+                if (bucketIds[slot] == bucket) {
+                    int base = slot * METHODS;
+                    visitor.visit(bucket * bucketSeconds, revenueCents[slot], orders[base], orders[base + 1], orders[base + 2]);
+                } else {
+                    visitor.visit(bucket * bucketSeconds, 0, 0, 0, 0);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Décimas de unidad vendidas por pizza en el rango; tenths[i] corresponde a pizzaIds[i].
+     */
+    PizzaUnits unitsByPizza(long fromEpochSecond, long toEpochSecond) {
+        long first = Math.floorDiv(fromEpochSecond, bucketSeconds);
+        long last = Math.floorDiv(toEpochSecond - 1, bucketSeconds);
+
+        lock.readLock().lock();
+        try {
+            long[] totals = new long[usedSlots];
+            for (int slot = 0; slot < capacity; slot++) {
+                long bucket = bucketIds[slot];
+                if (bucket >= first && bucket <= last) {
+                    int base = slot * pizzaSlots;
+                    for (int column = 0; column < usedSlots; column++) {
+                        totals[column] += unitTenths[base + column];
+                    }
+                }
+            }
+            return new PizzaUnits(Arrays.copyOf(pizzaBySlot, usedSlots), totals);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Columna de la pizza, asignando la siguiente libre si es la primera vez. Se llama con el candado de escritura.
+    private int column(int pizzaId) {
+        Integer column = slotByPizza.get(pizzaId);
+        if (column != null) {
+            return column;
+        }
+        if (usedSlots == pizzaSlots) {
+            grow(pizzaSlots * 2);
+        }
+        pizzaBySlot[usedSlots] = pizzaId;
+        slotByPizza.put(pizzaId, usedSlots);
+        return usedSlots++;
+    }
+
+    private void reset(int slot, long bucket) {
+        bucketIds[slot] = bucket;
+        revenueCents[slot] = 0;
+        Arrays.fill(orders, slot * METHODS, slot * METHODS + METHODS, 0);
+        Arrays.fill(unitTenths, slot * pizzaSlots, slot * pizzaSlots + pizzaSlots, 0);
+    }
+
+    private void grow(int slots) {
+        long[] grown = new long[capacity * slots];
+        for (int slot = 0; slot < capacity; slot++) {
+            System.arraycopy(unitTenths, slot * pizzaSlots, grown, slot * slots, pizzaSlots);
+        }
+        unitTenths = grown;
+        pizzaBySlot = Arrays.copyOf(pizzaBySlot, slots);
+        pizzaSlots = slots;
+    }
+
+    record PizzaUnits(int[] pizzaIds, long[] tenths) {
+    }
+
+    @FunctionalInterface
+    interface BucketVisitor {
+        void visit(long startEpochSecond, long revenueCents, int delivery, int carryout, int onSite);
+    }
+}
@@ -0,0 +1,188 @@
+package com.platzi.pizza.service.analytics;
+
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderItemEntity;
+import com.platzi.pizza.service.archive.OrderHistory;
+import com.platzi.pizza.service.dto.PizzaDto;
+import com.platzi.pizza.service.dto.PizzaUnitsDto;
+import com.platzi.pizza.service.dto.SalesPointDto;
+import com.platzi.pizza.service.event.OrdersSavedEvent;
+import com.platzi.pizza.service.menu.MenuCache;
+import com.platzi.pizza.service.menu.MenuSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Acumulados de ventas por minuto, hora y día que se actualizan con cada orden confirmada.
+ * Las consultas del tablero se responden desde memoria sin tocar la base de datos.
+ */
+@Component
+public class SalesAnalytics {
+    private static final Logger log = LoggerFactory.getLogger(SalesAnalytics.class);
+    private static final List<String> METHODS = List.of("D", "C", "S");
+    private static final int REBUILD_CLEAR_EVERY = 500;
+
+    private final OrderHistory orderHistory;
+    private final MenuCache menuCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<Granularity, RollupSeries> series = new EnumMap<>(Granularity.class);
+
+    // Ids ya acumulados desde el arranque hasta que termina rebuild; null después. Existe desde antes de
+    // ApplicationReadyEvent porque las órdenes pueden confirmarse en cuanto Tomcat atiende peticiones.
+    private volatile Set<Integer> rebuildSeen = ConcurrentHashMap.newKeySet();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public SalesAnalytics(OrderHistory orderHistory, MenuCache menuCache, PlatformTransactionManager transactionManager) {
+        this.orderHistory = orderHistory;
+        this.menuCache = menuCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        for (Granularity granularity : Granularity.values()) {
+            series.put(granularity, new RollupSeries(granularity));
+        }
+    }
+
+    /**
+     * Reconstruye los acumulados con el historial que cabe en la retención más larga. Solo se leen
+     * las órdenes anteriores al arranque: las posteriores llegan por {@link #onOrdersSaved}.
+     * Una orden confirmada entre el arranque y el fin de la consulta puede llegar por los dos caminos;
+     * se cuenta una sola vez por idOrder.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(Granularity.DAY.retention);
+
+        Set<Integer> seen = rebuildSeen;
+        if (seen == null) {
+            seen = ConcurrentHashMap.newKeySet();
+            rebuildSeen = seen;
+        }
+        try {
+            long loaded = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<OrderEntity> orders = orderHistory.streamByDateAndMethod(from, to, METHODS)) {
+                    for (OrderEntity order : (Iterable<OrderEntity>) orders::iterator) {
+                        if (seen.add(order.getIdOrder())) {
+                            record(order);
+                        }
+                        if (++count % REBUILD_CLEAR_EVERY == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+                return count;
+            });
+            log.info("Sales analytics rebuilt from {} orders", loaded);
+        } finally {
+            rebuildSeen = null;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrdersSaved(OrdersSavedEvent event) {
+        Set<Integer> seen = rebuildSeen;
+        for (OrderEntity order : event.orders()) {
+            if (seen == null || seen.add(order.getIdOrder())) {
+                record(order);
+            }
+        }
+    }
+
+    void record(OrderEntity order) {
+        long epochSecond = order.getDate().atZone(zone).toEpochSecond();
+        long cents = Math.round(order.getTotal() * 100);
+        int method = METHODS.indexOf(order.getMethod());
+
+        List<OrderItemEntity> items = order.getItems() != null ? order.getItems() : List.of();
+        int[] pizzaIds = new int[items.size()];
+        long[] tenths = new long[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            pizzaIds[i] = items.get(i).getIdPizza();
+            tenths[i] = Math.round(items.get(i).getQuantity() * 10);
+        }
+
+        for (RollupSeries rollup : series.values()) {
+            rollup.add(epochSecond, cents, method, pizzaIds, tenths);
+        }
+    }
+
+    /**
+     * Serie de ventas entre from (incluido) y to (excluido), un punto por intervalo.
+     */
+    public List<SalesPointDto> sales(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        List<SalesPointDto> points = new ArrayList<>();
+        series.get(granularity).forEachBucket(epoch(from), epoch(to), (start, cents, delivery, carryout, onSite) ->
+                points.add(new SalesPointDto(LocalDateTime.ofInstant(Instant.ofEpochSecond(start), zone),
+                        cents / 100.0, delivery, carryout, onSite)));
+        return points;
+    }
+
+    /**
+     * Las N pizzas con más unidades vendidas en el rango.
+     * @throws IllegalArgumentException Si limit es negativo.
+     */
+    public List<PizzaUnitsDto> topPizzas(Granularity granularity, LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        RollupSeries.PizzaUnits sold = series.get(granularity).unitsByPizza(epoch(from), epoch(to));
+        long[] units = sold.tenths();
+
+        // Selección parcial: solo se ordenan los primeros "limit" puestos. top guarda posiciones de units.
+        int[] top = new int[Math.min(limit, units.length)];
+        int size = 0;
+        for (int column = 0; column < units.length; column++) {
+            if (units[column] == 0) {
+                continue;
+            }
+            int position = size < top.length ? size++ : top.length;
+            while (position > 0 && units[top[position - 1]] < units[column]) {
+                if (position < top.length) {
+                    top[position] = top[position - 1];
+                }
+                position--;
+            }
+            if (position < top.length) {
+                top[position] = column;
+            }
+        }
+
+        MenuSnapshot menu = menuCache.current();
+        List<PizzaUnitsDto> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int pizza = sold.pizzaIds()[top[i]];
+            String name = menu.get(pizza).map(PizzaDto::name).orElse(null);
+            result.add(new PizzaUnitsDto(pizza, name, units[top[i]] / 10.0));
+        }
+        return result;
+    }
+
+    private long epoch(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toEpochSecond();
+    }
+}
@@ -0,0 +1,99 @@
+package com.platzi.pizza.service.archive;
+
+import com.platzi.pizza.persistence.repository.OrderArchiveBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mueve al archivo las órdenes más viejas que horizon, en bloques de chunk-size órdenes con
+ * una transacción corta cada uno y una pausa entre bloques para no competir con las ventas.
+ * Si varias instancias corren el cron a la vez, solo archiva la que toma el candado de la base.
+ */
+@Component
+public class OrderArchiver {
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+    private static final String LOCK_NAME = "order_archive";
+
+    private final OrderArchiveBatchRepository orderArchiveBatchRepository;
+    private final OrderHistory orderHistory;
+    private final TransactionTemplate writeTransaction;
+    private final Duration horizon;
+    private final int chunkSize;
+    private final Duration pause;
+    // Cuánto dura el candado sin renovarse; se renueva en cada bloque, así solo debe cubrir uno y su pausa.
+    private final Duration lockLease;
+
+    @Autowired
+    public OrderArchiver(OrderArchiveBatchRepository orderArchiveBatchRepository, OrderHistory orderHistory,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${pizzeria.orders.archive.horizon:90d}") Duration horizon,
+                         @Value("${pizzeria.orders.archive.chunk-size:500}") int chunkSize,
+                         @Value("${pizzeria.orders.archive.pause:200ms}") Duration pause,
+                         @Value("${pizzeria.orders.archive.lock-lease:10m}") Duration lockLease) {
+        this.orderArchiveBatchRepository = orderArchiveBatchRepository;
+        this.orderHistory = orderHistory;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.lockLease = lockLease;
+    }
+
+    @Scheduled(cron = "${pizzeria.orders.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        String owner = UUID.randomUUID().toString();
+        boolean locked = writeTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return orderArchiveBatchRepository.lock(LOCK_NAME, owner, now, now.plus(lockLease));
+        });
+        if (!locked) {
+            log.info("Order archive is already running on another instance");
+            return;
+        }
+
+        try {
+            archive(owner);
+        } finally {
+            writeTransaction.executeWithoutResult(status ->
+                    orderArchiveBatchRepository.unlock(LOCK_NAME, owner, LocalDateTime.now()));
+        }
+    }
+
+    private void archive(String owner) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        orderHistory.archivingBefore(cutoff);
+
+        int total = 0;
+        int moved;
+        do {
+            moved = writeTransaction.execute(status -> {
+                // Si el candado venció y lo tomó otra instancia, este bloque no se mueve.
+                if (!orderArchiveBatchRepository.renewLock(LOCK_NAME, owner, LocalDateTime.now().plus(lockLease))) {
+                    throw new IllegalStateException("Lost the order archive lock");
+                }
+                List<Integer> ids = orderArchiveBatchRepository.findIdsBefore(cutoff, chunkSize);
+                return ids.isEmpty() ? 0 : orderArchiveBatchRepository.archive(ids);
+            });
+            total += moved;
+            if (moved == chunkSize) {
+                LockSupport.parkNanos(pause.toNanos());
+            }
+        } while (moved == chunkSize);
+
+        if (total > 0) {
+            log.info("Archived {} orders older than {}", total, cutoff);
+        }
+    }
+}
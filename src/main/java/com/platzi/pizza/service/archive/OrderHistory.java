@@ -0,0 +1,105 @@
+package com.platzi.pizza.service.archive;
+
+import com.platzi.pizza.persistence.entity.OrderArchiveEntity;
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.projection.OrderItemLine;
+import com.platzi.pizza.persistence.repository.OrderArchiveRepository;
+import com.platzi.pizza.persistence.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de órdenes que abarcan las tablas vigentes y el archivo. El archivo solo se consulta
+ * si el rango pedido empieza antes del límite de lo archivado; las lecturas de los últimos días
+ * se quedan en pizza_order y order_item. Los listados sin rango (todas, por método, por cliente)
+ * abarcan siempre el archivo una vez que tiene órdenes. Debe llamarse dentro de una transacción.
+ */
+@Component
+public class OrderHistory {
+    private final OrderRepository orderRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+
+    // Todas las órdenes archivadas son anteriores a este momento; null mientras el archivo esté vacío.
+    private volatile LocalDateTime archivedBefore;
+
+    @Autowired
+    public OrderHistory(OrderRepository orderRepository, OrderArchiveRepository orderArchiveRepository) {
+        this.orderRepository = orderRepository;
+        this.orderArchiveRepository = orderArchiveRepository;
+    }
+
+    @PostConstruct
+    public void loadArchivedBefore() {
+        archivedBefore = orderArchiveRepository.findLatestDate().map(date -> date.plusNanos(1)).orElse(null);
+    }
+
+    /**
+     * Lo llama el archivador antes de mover órdenes anteriores a cutoff, para que ninguna lectura
+     * deje de ver el archivo mientras se llena.
+     */
+    void archivingBefore(LocalDateTime cutoff) {
+        LocalDateTime current = archivedBefore;
+        if (current == null || cutoff.isAfter(current)) {
+            archivedBefore = cutoff;
+        }
+    }
+
+    public List<OrderItemLine> findAllLines() {
+        List<OrderItemLine> lines = orderRepository.findAllLines();
+        return spansArchive(null) ? merge(orderArchiveRepository.findAllLines(), lines) : lines;
+    }
+
+    public List<OrderItemLine> findLinesByDateAfter(LocalDateTime date) {
+        List<OrderItemLine> lines = orderRepository.findLinesByDateAfter(date);
+        return spansArchive(date) ? merge(orderArchiveRepository.findLinesByDateAfter(date), lines) : lines;
+    }
+
+    public List<OrderItemLine> findLinesByMethodIn(List<String> methods) {
+        List<OrderItemLine> lines = orderRepository.findLinesByMethodIn(methods);
+        return spansArchive(null) ? merge(orderArchiveRepository.findLinesByMethodIn(methods), lines) : lines;
+    }
+
+    public List<OrderItemLine> findCustomerOrderLines(String idCustomer) {
+        List<OrderItemLine> lines = orderRepository.findCustomerOrderLines(idCustomer);
+        return spansArchive(null) ? merge(orderArchiveRepository.findCustomerOrderLines(idCustomer), lines) : lines;
+    }
+
+    /**
+     * Igual que OrderRepository.streamByDateAndMethod; las órdenes archivadas llegan primero,
+     * como copias de OrderEntity sin estado de persistencia.
+     */
+    public Stream<OrderEntity> streamByDateAndMethod(LocalDateTime from, LocalDateTime to, Collection<String> methods) {
+        Stream<OrderEntity> orders = orderRepository.streamByDateAndMethod(from, to, methods);
+        if (!spansArchive(from)) {
+            return orders;
+        }
+        Stream<OrderEntity> archived = orderArchiveRepository.streamByDateAndMethod(from, to, methods)
+                .map(OrderArchiveEntity::toOrder);
+        return Stream.concat(archived, orders);
+    }
+
+    private boolean spansArchive(LocalDateTime from) {
+        LocalDateTime limit = archivedBefore;
+        return limit != null && (from == null || from.isBefore(limit));
+    }
+
+    // Une las filas de ambas tablas ordenadas por idOrder; el orden es estable, así cada orden conserva el de sus items.
+    private static List<OrderItemLine> merge(List<OrderItemLine> archived, List<OrderItemLine> current) {
+        if (archived.isEmpty()) {
+            return current;
+        }
+        List<OrderItemLine> lines = new ArrayList<>(archived.size() + current.size());
+        lines.addAll(archived);
+        lines.addAll(current);
+        lines.sort(Comparator.comparing(OrderItemLine::getIdOrder));
+        return lines;
+    }
+}
@@ -0,0 +1,265 @@
+package com.platzi.pizza.service.cache;
+
+import com.platzi.pizza.persistence.entity.CustomerEntity;
+import com.platzi.pizza.persistence.repository.CustomerRepository;
+import com.platzi.pizza.service.dto.CacheStatsDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.platzi.pizza.persistence.entity.CustomerEntity.normalizePhone;
+
+/**
+ * Caché cercana de clientes para el call center: por teléfono normalizado y por id, con LRU y TTL.
+ * Un filtro de Bloom con todos los teléfonos registrados contesta sin consultar la base de datos
+ * a los que llaman por primera vez. Las escrituras de CustomerEntity invalidan las entradas al confirmarse.
+ * <p>
+ * Los teléfonos escritos en esta instancia entran al filtro al confirmarse, incluso si hay una
+ * reconstrucción en curso. Los de otras instancias entran con el refresco por modified_date, así que
+ * un cliente nuevo puede recibir un "no existe" durante a lo sumo refresh-interval.
+ */
+@Component
+public class CustomerLookupCache implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final CustomerRepository customerRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final double bloomFalsePositiveRate;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bloomRejections = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Los refrescos repiten este margen hacia atrás: cubre diferencias de reloj y transacciones largas.
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final LruTtlCache<String, CustomerEntity> byPhone;
+    private final LruTtlCache<String, CustomerEntity> byId;
+
+    // null hasta la primera carga: mientras tanto no se descarta ninguna búsqueda.
+    private volatile BloomFilter knownPhones;
+
+    // Teléfonos agregados mientras se arma un filtro nuevo, para pasarlos a ese filtro; null si no hay
+    // reconstrucción en curso. Protegido por filterLock.
+    private final Object filterLock = new Object();
+    private List<String> addedDuringRebuild;
+
+    // Inicio de la última carga o refresco del filtro.
+    private LocalDateTime refreshedAt;
+
+    @Autowired
+    public CustomerLookupCache(CustomerRepository customerRepository, EntityManagerFactory entityManagerFactory,
+                               @Value("${pizzeria.customers.cache.max-size:10000}") int maxSize,
+                               @Value("${pizzeria.customers.cache.ttl:10m}") Duration ttl,
+                               @Value("${pizzeria.customers.bloom.false-positive-rate:0.01}") double bloomFalsePositiveRate) {
+        this.customerRepository = customerRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        this.byPhone = new LruTtlCache<>(maxSize, ttl.toNanos(), evictions);
+        this.byId = new LruTtlCache<>(maxSize, ttl.toNanos(), evictions);
+    }
+
+    @PostConstruct
+    public void registerListener() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Vuelve a armar el filtro con los teléfonos actuales. Además del arranque se repite cada cierto
+     * tiempo para incluir los clientes dados de alta fuera de esta instancia y olvidar los borrados.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${pizzeria.customers.bloom.rebuild-interval:10m}",
+            initialDelayString = "${pizzeria.customers.bloom.rebuild-interval:10m}")
+    public synchronized void rebuildBloomFilter() {
+        synchronized (filterLock) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            LocalDateTime started = LocalDateTime.now();
+            List<String> phones = customerRepository.findAllPhoneNumbers();
+            BloomFilter filter = new BloomFilter(phones.size() * 2L, bloomFalsePositiveRate);
+            phones.forEach(filter::put);
+
+            // Lo confirmado durante la consulta pudo quedar fuera de ella: se agrega antes de publicar el filtro.
+            synchronized (filterLock) {
+                addedDuringRebuild.forEach(filter::put);
+                knownPhones = filter;
+            }
+            refreshedAt = started;
+        } finally {
+            synchronized (filterLock) {
+                addedDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Agrega al filtro los teléfonos escritos desde el último refresco, incluidos los de otras instancias.
+     */
+    @Scheduled(fixedDelayString = "${pizzeria.customers.bloom.refresh-interval:15s}",
+            initialDelayString = "${pizzeria.customers.bloom.refresh-interval:15s}")
+    public synchronized void refreshBloomFilter() {
+        if (refreshedAt == null) {
+            return; // Todavía no hay filtro: nada se descarta.
+        }
+        LocalDateTime started = LocalDateTime.now();
+        customerRepository.findPhoneNumbersModifiedSince(refreshedAt.minus(REFRESH_OVERLAP))
+                .forEach(this::addPhone);
+        refreshedAt = started;
+    }
+
+    /**
+     * @param loader Busca el cliente por el teléfono ya normalizado (columna phone_lookup). Debe leer
+     * del primario: una réplica atrasada dejaría en caché, durante todo el TTL, la fila anterior a
+     * una escritura que acaba de invalidarla.
+     */
+    public CustomerEntity getByPhone(String phone, Function<String, CustomerEntity> loader) {
+        String key = normalizePhone(phone);
+        CustomerEntity cached = byPhone.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        BloomFilter filter = knownPhones;
+        if (filter != null && !filter.mightContain(key)) {
+            bloomRejections.increment();
+            return null;
+        }
+
+        misses.increment();
+        CustomerEntity customer = loader.apply(key);
+        if (customer != null) {
+            put(customer);
+        }
+        return customer;
+    }
+
+    public CustomerEntity getById(String idCustomer, Supplier<CustomerEntity> loader) {
+        CustomerEntity cached = byId.get(idCustomer);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        CustomerEntity customer = loader.get();
+        if (customer != null) {
+            put(customer);
+        }
+        return customer;
+    }
+
+    public CacheStatsDto getStats() {
+        return new CacheStatsDto(hits.sum(), misses.sum(), bloomRejections.sum(), evictions.sum(),
+                byPhone.size() + byId.size());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof CustomerEntity customer) {
+            onWrite(customer);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof CustomerEntity customer) {
+            onWrite(customer);
+
+            // Si cambió el teléfono también se invalida el anterior.
+            int phone = Arrays.asList(event.getPersister().getPropertyNames()).indexOf("phoneNumber");
+            if (event.getOldState() != null && phone >= 0 && event.getOldState()[phone] != null) {
+                byPhone.remove(normalizePhone((String) event.getOldState()[phone]));
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof CustomerEntity customer) {
+            invalidate(customer.getIdCustomer(), customer.getPhoneNumber());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return CustomerEntity.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void onWrite(CustomerEntity customer) {
+        invalidate(customer.getIdCustomer(), customer.getPhoneNumber());
+        if (customer.getPhoneNumber() != null) {
+            addPhone(normalizePhone(customer.getPhoneNumber()));
+        }
+    }
+
+    private void addPhone(String phone) {
+        synchronized (filterLock) {
+            BloomFilter filter = knownPhones;
+            if (filter != null) {
+                filter.put(phone);
+            }
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(phone);
+            }
+        }
+    }
+
+    private void put(CustomerEntity customer) {
+        byId.put(customer.getIdCustomer(), customer);
+        if (customer.getPhoneNumber() != null) {
+            byPhone.put(normalizePhone(customer.getPhoneNumber()), customer);
+        }
+    }
+
+    private void invalidate(String idCustomer, String phone) {
+        byId.remove(idCustomer);
+        if (phone != null) {
+            byPhone.remove(normalizePhone(phone));
+        }
+    }
+}
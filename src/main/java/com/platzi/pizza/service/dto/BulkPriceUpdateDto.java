@@ -0,0 +1,18 @@
+package com.platzi.pizza.service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Cambio de precios en bloque: una lista explícita de precios o un porcentaje
+ * aplicado a las pizzas que cumplan los filtros (los filtros null no se aplican).
+ */
+@Data
+public class BulkPriceUpdateDto {
+    private List<UpdatePizzaPriceDto> prices;
+    private Double percentage;
+    private Boolean vegan;
+    private Boolean vegetarian;
+    private Boolean available;
+}
@@ -0,0 +1,9 @@
+package com.platzi.pizza.service.dto;
+
+/**
+ * Estado de una región de la caché de segundo nivel. ttlSeconds y maxSize son -1 si la región
+ * no tiene límite; hitRatio es -1 mientras no haya lecturas.
+ */
+public record CacheRegionStatsDto(String region, long size, long maxSize, long ttlSeconds,
+                                  long hits, long misses, long puts, double hitRatio) {
+}
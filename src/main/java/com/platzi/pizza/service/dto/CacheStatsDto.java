@@ -0,0 +1,8 @@
+package com.platzi.pizza.service.dto;
+
+/**
+ * Contadores de una caché. bloomRejections son las búsquedas que el filtro de Bloom
+ * contestó sin consultar la base de datos.
+ */
+public record CacheStatsDto(long hits, long misses, long bloomRejections, long evictions, int size) {
+}
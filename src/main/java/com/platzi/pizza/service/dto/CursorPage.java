@@ -0,0 +1,10 @@
+package com.platzi.pizza.service.dto;
+
+import java.util.List;
+
+/**
+ * Página de un recorrido por cursor. nextCursor es null cuando no hay más elementos
+ * y total solo se calcula si el cliente lo pide.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, Long total) {
+}
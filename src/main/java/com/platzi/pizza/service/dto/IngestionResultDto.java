@@ -0,0 +1,17 @@
+package com.platzi.pizza.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de encolar un lote de órdenes. Las órdenes se aceptan en el orden recibido,
+ * así que las rechazadas son siempre las últimas {@code rejected} de la lista.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionResultDto {
+    private int accepted;
+    private int rejected;
+}
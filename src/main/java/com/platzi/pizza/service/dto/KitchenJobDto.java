@@ -0,0 +1,7 @@
+package com.platzi.pizza.service.dto;
+
+/**
+ * Orden asignada a un horno. waitedSeconds es lo que esperó en la cola antes de asignarse.
+ */
+public record KitchenJobDto(int station, OrderDto order, long estimatedPrepSeconds, long waitedSeconds) {
+}
@@ -0,0 +1,52 @@
+package com.platzi.pizza.service.dto;
+
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderItemEntity;
+import com.platzi.pizza.persistence.projection.OrderItemLine;
+import com.platzi.pizza.service.menu.MenuSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orden para los listados: sus items llevan solo el id y el nombre de la pizza en lugar de la entidad completa.
+ */
+public record OrderDto(Integer idOrder, String idCustomer, LocalDateTime date, Double total, String method,
+                       String additionalNotes, List<OrderItemDto> items) {
+
+    /**
+     * Agrupa las filas por orden. Las filas deben venir ordenadas por idOrder.
+     */
+    public static List<OrderDto> fromLines(List<OrderItemLine> lines) {
+        List<OrderDto> orders = new ArrayList<>();
+        OrderDto current = null;
+        for (OrderItemLine line : lines) {
+            if (current == null || !current.idOrder().equals(line.getIdOrder())) {
+                current = new OrderDto(line.getIdOrder(), line.getIdCustomer(), line.getDate(), line.getTotal(),
+                        line.getMethod(), line.getAdditionalNotes(), new ArrayList<>());
+                orders.add(current);
+            }
+            if (line.getIdItem() != null) {
+                current.items().add(new OrderItemDto(line.getIdItem(), line.getIdPizza(), line.getPizzaName(),
+                        line.getQuantity(), line.getPrice()));
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Convierte una orden recién guardada; el nombre de cada pizza sale del menú en memoria.
+     */
+    public static OrderDto fromEntity(OrderEntity order, MenuSnapshot menu) {
+        List<OrderItemDto> items = new ArrayList<>();
+        if (order.getItems() != null) {
+            for (OrderItemEntity item : order.getItems()) {
+                String pizzaName = menu.get(item.getIdPizza()).map(PizzaDto::name).orElse(null);
+                items.add(new OrderItemDto(item.getIdItem(), item.getIdPizza(), pizzaName, item.getQuantity(), item.getPrice()));
+            }
+        }
+        return new OrderDto(order.getIdOrder(), order.getIdCustomer(), order.getDate(), order.getTotal(),
+                order.getMethod(), order.getAdditionalNotes(), items);
+    }
+}
@@ -0,0 +1,4 @@
+package com.platzi.pizza.service.dto;
+
+public record OrderItemDto(Integer idItem, Integer idPizza, String pizzaName, Double quantity, Double price) {
+}
@@ -0,0 +1,16 @@
+package com.platzi.pizza.service.dto;
+
+import com.platzi.pizza.persistence.entity.PizzaEntity;
+
+/**
+ * Pizza tal como la devuelve el menú en memoria. Es inmutable: la foto del menú se comparte
+ * entre todas las peticiones y nadie puede cambiarla desde afuera.
+ */
+public record PizzaDto(Integer idPizza, String name, String description, Double price,
+                       Boolean vegetarian, Boolean vegan, Boolean available) {
+
+    public static PizzaDto fromEntity(PizzaEntity pizza) {
+        return new PizzaDto(pizza.getIdPizza(), pizza.getName(), pizza.getDescription(), pizza.getPrice(),
+                pizza.getVegetarian(), pizza.getVegan(), pizza.getAvailable());
+    }
+}
@@ -0,0 +1,4 @@
+package com.platzi.pizza.service.dto;
+
+public record PizzaUnitsDto(int idPizza, String name, double units) {
+}
@@ -0,0 +1,14 @@
+package com.platzi.pizza.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceUpdateResultDto {
+    private int pizzaId;
+    private double newPrice;
+    private boolean found;
+}
@@ -0,0 +1,9 @@
+package com.platzi.pizza.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ventas de un intervalo: ingresos y número de órdenes por método (D, C, S).
+ */
+public record SalesPointDto(LocalDateTime start, double revenue, int delivery, int carryout, int onSite) {
+}
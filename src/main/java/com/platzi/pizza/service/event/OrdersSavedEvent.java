@@ -0,0 +1,12 @@
+package com.platzi.pizza.service.event;
+
+import com.platzi.pizza.persistence.entity.OrderEntity;
+
+import java.util.List;
+
+/**
+ * Se publica dentro de la transacción que guarda una o varias órdenes (con sus items).
+ * Los interesados en el commit deben escucharlo con @TransactionalEventListener.
+ */
+public record OrdersSavedEvent(List<OrderEntity> orders) {
+}
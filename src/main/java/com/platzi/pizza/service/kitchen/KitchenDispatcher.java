@@ -0,0 +1,233 @@
+package com.platzi.pizza.service.kitchen;
+
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderItemEntity;
+import com.platzi.pizza.service.dto.KitchenJobDto;
+import com.platzi.pizza.service.dto.OrderDto;
+import com.platzi.pizza.service.event.OrdersSavedEvent;
+import com.platzi.pizza.service.menu.MenuCache;
+import com.platzi.pizza.service.menu.MenuSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reparte las órdenes confirmadas entre los hornos de la tienda.
+ * <ul>
+ *     <li>Hay una cola sin bloqueos (ConcurrentLinkedQueue) por método de entrega; dentro de cada una
+ *     se respeta el orden de llegada, así que basta comparar las cabezas para elegir.</li>
+ *     <li>Prioridad base: domicilio (D) antes que para llevar (C) y este antes que en el local (S).
+ *     Cada aging-step de espera suma un nivel, para que ninguna orden se quede atrás indefinidamente.</li>
+ *     <li>Cada horno tiene a lo sumo un trabajo en curso, guardado en un AtomicReferenceArray:
+ *     pedir el siguiente y marcarlo terminado son operaciones compare-and-set.</li>
+ * </ul>
+ * Las colas viven en memoria: las órdenes pendientes no sobreviven a un reinicio.
+ */
+@Component
+public class KitchenDispatcher {
+    private static final List<String> METHODS = List.of("D", "C", "S");
+    // Marca un horno mientras se elige su siguiente orden.
+    private static final Job RESERVED = new Job(null, null, Duration.ZERO, 0);
+
+    private final MenuCache menuCache;
+    private final long agingStepNanos;
+    private final Duration basePrep;
+    private final Duration prepPerPizza;
+
+    private final Map<String, ConcurrentLinkedQueue<Job>> queues = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> depths = new LinkedHashMap<>();
+    private final Map<String, Timer> waitTimers = new LinkedHashMap<>();
+    private final AtomicReferenceArray<Job> inProgress;
+    private final Timer prepTimer;
+
+    @Autowired
+    public KitchenDispatcher(MenuCache menuCache, MeterRegistry meterRegistry,
+                             @Value("${pizzeria.kitchen.stations:4}") int stations,
+                             @Value("${pizzeria.kitchen.aging-step:2m}") Duration agingStep,
+                             @Value("${pizzeria.kitchen.prep.base:6m}") Duration basePrep,
+                             @Value("${pizzeria.kitchen.prep.per-pizza:2m}") Duration prepPerPizza) {
+        this.menuCache = menuCache;
+        this.agingStepNanos = agingStep.toNanos();
+        this.basePrep = basePrep;
+        this.prepPerPizza = prepPerPizza;
+        this.inProgress = new AtomicReferenceArray<>(stations);
+
+        for (String method : METHODS) {
+            AtomicInteger depth = new AtomicInteger();
+            queues.put(method, new ConcurrentLinkedQueue<>());
+            depths.put(method, depth);
+            Gauge.builder("pizzeria.kitchen.queue.depth", depth, AtomicInteger::get)
+                    .tag("method", method)
+                    .register(meterRegistry);
+            waitTimers.put(method, Timer.builder("pizzeria.kitchen.queue.wait")
+                    .description("Time from order commit until an oven station takes it")
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.prepTimer = Timer.builder("pizzeria.kitchen.prep")
+                .description("Time from station assignment until the job is marked done")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("pizzeria.kitchen.stations.busy", this, KitchenDispatcher::busyStations)
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onOrdersSaved(OrdersSavedEvent event) {
+        MenuSnapshot menu = menuCache.current();
+        for (OrderEntity order : event.orders()) {
+            enqueue(order, menu);
+        }
+    }
+
+    private void enqueue(OrderEntity order, MenuSnapshot menu) {
+        String method = queues.containsKey(order.getMethod()) ? order.getMethod() : "S";
+        queues.get(method).offer(new Job(OrderDto.fromEntity(order, menu), method, estimatePrep(order), System.nanoTime()));
+        depths.get(method).incrementAndGet();
+    }
+
+    /**
+     * Siguiente trabajo para un horno. Si el horno ya tiene uno sin terminar se devuelve ese mismo,
+     * así un reintento de la pantalla no toma una segunda orden.
+     * @return El trabajo asignado, o null si no hay órdenes en cola.
+     */
+    public KitchenJobDto next(int station) {
+        checkStation(station);
+        Job current = inProgress.get(station);
+        if (current == RESERVED) {
+            return null;
+        }
+        if (current != null) {
+            return current.toDto(station);
+        }
+        // Se reserva el horno antes de sacar la orden, así dos peticiones simultáneas del mismo horno no toman dos.
+        if (!inProgress.compareAndSet(station, null, RESERVED)) {
+            return next(station);
+        }
+
+        Job job = poll();
+        if (job == null) {
+            inProgress.set(station, null);
+            return null;
+        }
+        long now = System.nanoTime();
+        Job assigned = job.assigned(now);
+        inProgress.set(station, assigned);
+        waitTimers.get(job.method()).record(now - job.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        return assigned.toDto(station);
+    }
+
+    /**
+     * Marca terminada la orden en curso del horno.
+     * @return false si el horno no estaba preparando esa orden.
+     */
+    public boolean complete(int station, int idOrder) {
+        checkStation(station);
+        Job current = inProgress.get(station);
+        if (current == null || current == RESERVED || current.order().idOrder() != idOrder) {
+            return false;
+        }
+        if (!inProgress.compareAndSet(station, current, null)) {
+            return false;
+        }
+        prepTimer.record(System.nanoTime() - current.assignedNanos(), TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    /**
+     * Órdenes en cola por método de entrega.
+     */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        depths.forEach((method, depth) -> result.put(method, depth.get()));
+        return result;
+    }
+
+    public int getStations() {
+        return inProgress.length();
+    }
+
+    // Compara las cabezas de las colas con su prioridad envejecida; si otro horno se lleva la cabeza elegida se vuelve a intentar.
+    private Job poll() {
+        while (true) {
+            long now = System.nanoTime();
+            String best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < METHODS.size(); i++) {
+                Job head = queues.get(METHODS.get(i)).peek();
+                if (head == null) {
+                    continue;
+                }
+                double score = (METHODS.size() - i) + (double) (now - head.enqueuedNanos()) / agingStepNanos;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = METHODS.get(i);
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            Job job = queues.get(best).poll();
+            if (job != null) {
+                depths.get(best).decrementAndGet();
+                return job;
+            }
+        }
+    }
+
+    // base + per-pizza por cada unidad pedida (las medias pizzas cuentan la mitad).
+    private Duration estimatePrep(OrderEntity order) {
+        double pizzas = 0;
+        if (order.getItems() != null) {
+            for (OrderItemEntity item : order.getItems()) {
+                pizzas += item.getQuantity() != null ? item.getQuantity() : 0;
+            }
+        }
+        return basePrep.plusNanos(Math.round(prepPerPizza.toNanos() * pizzas));
+    }
+
+    private void checkStation(int station) {
+        if (station < 0 || station >= inProgress.length()) {
+            throw new IllegalArgumentException("Unknown oven station " + station);
+        }
+    }
+
+    private int busyStations() {
+        int busy = 0;
+        for (int i = 0; i < inProgress.length(); i++) {
+            if (inProgress.get(i) != null && inProgress.get(i) != RESERVED) {
+                busy++;
+            }
+        }
+        return busy;
+    }
+
+    private record Job(OrderDto order, String method, Duration estimatedPrep, long enqueuedNanos, long assignedNanos) {
+        Job(OrderDto order, String method, Duration estimatedPrep, long enqueuedNanos) {
+            this(order, method, estimatedPrep, enqueuedNanos, 0);
+        }
+
+        Job assigned(long now) {
+            return new Job(order, method, estimatedPrep, enqueuedNanos, now);
+        }
+
+        KitchenJobDto toDto(int station) {
+            return new KitchenJobDto(station, order, estimatedPrep.toSeconds(),
+                    TimeUnit.NANOSECONDS.toSeconds(assignedNanos - enqueuedNanos));
+        }
+    }
+}
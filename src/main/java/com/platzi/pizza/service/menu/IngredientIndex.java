@@ -0,0 +1,217 @@
+package com.platzi.pizza.service.menu;
+
+import com.platzi.pizza.service.dto.PizzaDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de ingredientes: cada palabra de la descripción (sin acentos y en minúsculas)
+ * apunta a un BitSet con los ids de las pizzas que la contienen. Así "con X", "sin X" y sus
+ * combinaciones se resuelven con AND / ANDNOT sobre bits en lugar de LIKE '%x%'.
+ * <p>
+ * Cada índice corresponde a una foto del menú y los ids se resuelven con esa misma foto, así nunca
+ * se mezclan dos versiones ni se depende del orden en que corren los listeners de cambios. Cuando la
+ * foto vigente cambia, el índice nuevo se deriva del anterior: solo se vuelven a tokenizar las pizzas
+ * cuya descripción cambió, se agregaron o se eliminaron, y solo se copian los BitSet que tocan.
+ */
+@Component
+public class IngredientIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "los", "y",
+            "and", "of", "the", "with");
+
+    private final MenuCache menuCache;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.EMPTY);
+
+    @Autowired
+    public IngredientIndex(MenuCache menuCache) {
+        this.menuCache = menuCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild(menuCache.current());
+    }
+
+    /**
+     * Arma el índice de la foto dada si todavía no lo está.
+     */
+    public void rebuild(MenuSnapshot menu) {
+        indexOf(menu);
+    }
+
+    /**
+     * Busca sobre la foto vigente del menú.
+     * @see #search(MenuSnapshot, Collection, Collection)
+     */
+    public List<PizzaDto> search(Collection<String> include, Collection<String> exclude) {
+        return search(menuCache.current(), include, exclude);
+    }
+
+    /**
+     * Pizzas disponibles de la foto dada que contienen todos los ingredientes de include y ninguno de exclude.
+     * Como LIKE '%x%', cada palabra del término puede aparecer dentro de una palabra de la descripción
+     * ("champi" encuentra "champiñones"). Un término formado solo por palabras vacías ("con") no filtra.
+     */
+    public List<PizzaDto> search(MenuSnapshot menu, Collection<String> include, Collection<String> exclude) {
+        State current = indexOf(menu);
+        BitSet result = (BitSet) current.available().clone();
+
+        for (String term : include) {
+            BitSet matches = current.match(term);
+            if (matches != null) {
+                result.and(matches);
+            }
+        }
+        for (String term : exclude) {
+            BitSet matches = current.match(term);
+            if (matches != null) {
+                result.andNot(matches);
+            }
+        }
+
+        List<PizzaDto> pizzas = new ArrayList<>(result.cardinality());
+        for (int id = result.nextSetBit(0); id >= 0; id = result.nextSetBit(id + 1)) {
+            menu.get(id).ifPresent(pizzas::add);
+        }
+        return pizzas;
+    }
+
+    // Índice de la foto dada; solo se publica si es más nuevo que el guardado, por si dos búsquedas con fotos distintas se cruzan.
+    private State indexOf(MenuSnapshot menu) {
+        State current = state.get();
+        if (current.menu() == menu) {
+            return current;
+        }
+
+        State fresh = current.next(menu);
+        state.accumulateAndGet(fresh, (saved, next) ->
+                saved.menu() == null || next.menu().getGeneration() > saved.menu().getGeneration() ? next : saved);
+        return fresh;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : SEPARATORS.split(plain.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Índice inmutable de una foto del menú. Nunca se modifica después de armarse; los BitSet que no
+     * cambian se comparten con el índice anterior.
+     * @param descriptions Descripción indexada de cada pizza, para saber qué cambió en la foto siguiente.
+     */
+    private record State(MenuSnapshot menu, Map<Integer, String> descriptions, TreeMap<String, BitSet> postings,
+                         BitSet available) {
+        static final State EMPTY = new State(null, Map.of(), new TreeMap<>(), new BitSet());
+
+        /**
+         * Índice de menu a partir de este: se quitan las palabras de las pizzas eliminadas o cuya
+         * descripción cambió y se agregan las de las nuevas o cambiadas.
+         */
+        State next(MenuSnapshot menu) {
+            TreeMap<String, BitSet> nextPostings = new TreeMap<>(postings);
+            Set<String> copied = new HashSet<>();
+            Map<Integer, String> nextDescriptions = new HashMap<>();
+            BitSet nextAvailable = new BitSet();
+
+            for (PizzaDto pizza : menu.all()) {
+                int id = pizza.idPizza();
+                String description = pizza.description();
+                nextDescriptions.put(id, description);
+                nextAvailable.set(id, Boolean.TRUE.equals(pizza.available()));
+
+                boolean indexed = descriptions.containsKey(id);
+                if (indexed && Objects.equals(descriptions.get(id), description)) {
+                    continue;
+                }
+                if (indexed) {
+                    unindex(nextPostings, copied, id, descriptions.get(id));
+                }
+                for (String token : tokenize(description)) {
+                    editable(nextPostings, copied, token).set(id);
+                }
+            }
+            descriptions.forEach((id, description) -> {
+                if (!nextDescriptions.containsKey(id)) {
+                    unindex(nextPostings, copied, id, description);
+                }
+            });
+            return new State(menu, nextDescriptions, nextPostings, nextAvailable);
+        }
+
+        private static void unindex(TreeMap<String, BitSet> postings, Set<String> copied, int id, String description) {
+            for (String token : tokenize(description)) {
+                BitSet bits = editable(postings, copied, token);
+                bits.clear(id);
+                if (bits.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+
+        // BitSet de la palabra que se puede modificar: se copia la primera vez, porque el original lo comparte el índice anterior.
+        private static BitSet editable(TreeMap<String, BitSet> postings, Set<String> copied, String token) {
+            if (copied.add(token)) {
+                BitSet shared = postings.get(token);
+                BitSet copy = shared != null ? (BitSet) shared.clone() : new BitSet();
+                postings.put(token, copy);
+                return copy;
+            }
+            return postings.computeIfAbsent(token, key -> new BitSet());
+        }
+
+        /**
+         * Ids de las pizzas que contienen todas las palabras del término; cada palabra puede ser parte
+         * de una palabra de la descripción. null si el término solo tiene palabras vacías.
+         */
+        BitSet match(String term) {
+            BitSet result = null;
+            for (String word : tokenize(term)) {
+                BitSet wordMatches = new BitSet();
+                postings.forEach((token, bits) -> {
+                    if (token.contains(word)) {
+                        wordMatches.or(bits);
+                    }
+                });
+
+                if (result == null) {
+                    result = wordMatches;
+                } else {
+                    result.and(wordMatches);
+                }
+            }
+            return result;
+        }
+    }
+}
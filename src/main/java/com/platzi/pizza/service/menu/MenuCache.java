@@ -0,0 +1,67 @@
+package com.platzi.pizza.service.menu;
+
+import com.platzi.pizza.persistence.repository.PizzaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mantiene en memoria la foto vigente del menú para responder las lecturas sin ir a MySQL.
+ * La foto se reconstruye completa (son pocas decenas de filas) cuando se confirma un cambio.
+ */
+@Component
+public class MenuCache {
+    private final PizzaRepository pizzaRepository;
+
+    // Transacción nueva de escritura: va al primario aunque la recarga corra al confirmar otra transacción,
+    // así la foto incluye el cambio recién confirmado y no una réplica atrasada.
+    private final TransactionTemplate primaryTransaction;
+
+    private final AtomicReference<MenuSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generations = new AtomicLong();
+
+    @Autowired
+    public MenuCache(PizzaRepository pizzaRepository, PlatformTransactionManager transactionManager) {
+        this.pizzaRepository = pizzaRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Devuelve la foto vigente, cargándola si todavía no existe.
+     */
+    public MenuSnapshot current() {
+        MenuSnapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    // Con fallbackExecution también se reconstruye cuando el cambio se hizo fuera de una transacción.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        reload();
+    }
+
+    /**
+     * Lee todas las pizzas del primario y publica una foto nueva. Si dos recargas se cruzan,
+     * gana la que empezó más tarde.
+     */
+    public MenuSnapshot reload() {
+        long generation = generations.incrementAndGet();
+        MenuSnapshot fresh = primaryTransaction.execute(status -> new MenuSnapshot(generation, pizzaRepository.findAll()));
+        return snapshot.accumulateAndGet(fresh,
+                (current, next) -> current == null || next.getGeneration() > current.getGeneration() ? next : current);
+    }
+}
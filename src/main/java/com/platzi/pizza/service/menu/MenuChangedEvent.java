@@ -0,0 +1,29 @@
+package com.platzi.pizza.service.menu;
+
+import com.platzi.pizza.persistence.entity.PizzaEntity;
+
+/**
+ * Se publica cada vez que se guarda, se elimina o cambia el precio de una pizza.
+ * Para los guardados lleva la entidad resultante; en los demás casos pizza es null.
+ */
+public record MenuChangedEvent(Integer pizzaId, Change change, PizzaEntity pizza) {
+
+    public enum Change { SAVED, DELETED, PRICE_UPDATED }
+
+    public static MenuChangedEvent saved(PizzaEntity pizza) {
+        return new MenuChangedEvent(pizza.getIdPizza(), Change.SAVED, pizza);
+    }
+
+    public static MenuChangedEvent deleted(int pizzaId) {
+        return new MenuChangedEvent(pizzaId, Change.DELETED, null);
+    }
+
+    public static MenuChangedEvent priceUpdated(int pizzaId) {
+        return new MenuChangedEvent(pizzaId, Change.PRICE_UPDATED, null);
+    }
+
+    // Cambio de precios de varias pizzas a la vez; pizzaId es null.
+    public static MenuChangedEvent pricesUpdated() {
+        return new MenuChangedEvent(null, Change.PRICE_UPDATED, null);
+    }
+}
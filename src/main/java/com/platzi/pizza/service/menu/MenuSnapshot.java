@@ -0,0 +1,262 @@
+package com.platzi.pizza.service.menu;
+
+import com.platzi.pizza.persistence.entity.PizzaEntity;
+import com.platzi.pizza.persistence.projection.PizzaListItem;
+import com.platzi.pizza.service.dto.PizzaDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Foto inmutable del menú completo. Nunca se modifica: cada cambio en la tabla pizza
+ * produce una instancia nueva que reemplaza a la anterior (copy-on-write). Guarda y devuelve
+ * PizzaDto, no las entidades leídas, así quien la consulta no puede alterarla.
+ */
+public final class MenuSnapshot {
+
+    // Propiedades por las que se puede ordenar el listado de disponibles sin ir a la base de datos.
+    private static final Map<String, Comparator<PizzaDto>> SORTABLE = Map.of(
+            "price", Comparator.comparing(PizzaDto::price),
+            "name", Comparator.comparing(PizzaDto::name, String.CASE_INSENSITIVE_ORDER),
+            "idPizza", Comparator.comparing(PizzaDto::idPizza));
+
+    private final long generation;
+    private final Map<Integer, PizzaDto> byId;
+    private final List<PizzaListItem> listItems;
+    private final Map<String, PizzaDto> availableByName;
+    private final Map<String, PizzaDto[]> availableSorted;
+    private final PizzaDto[] availableByPrice;
+    private final int veganCount;
+    private final String eTag;
+    private final long lastModified;
+
+    MenuSnapshot(long generation, Collection<PizzaEntity> pizzas) {
+        this.generation = generation;
+
+        Map<Integer, PizzaDto> ids = new HashMap<>();
+        Map<String, PizzaDto> names = new HashMap<>();
+        List<PizzaDto> available = new ArrayList<>();
+        int vegan = 0;
+
+        for (PizzaEntity entity : pizzas) {
+            PizzaDto pizza = PizzaDto.fromEntity(entity);
+            ids.put(pizza.idPizza(), pizza);
+            if (Boolean.TRUE.equals(pizza.vegan())) {
+                vegan++;
+            }
+            if (Boolean.TRUE.equals(pizza.available())) {
+                available.add(pizza);
+                names.putIfAbsent(normalizeName(pizza.name()), pizza);
+            }
+        }
+
+        Map<String, PizzaDto[]> sorted = new HashMap<>();
+        SORTABLE.forEach((property, comparator) -> {
+            PizzaDto[] array = available.toArray(new PizzaDto[0]);
+            Arrays.sort(array, comparator.thenComparing(PizzaDto::idPizza));
+            sorted.put(property, array);
+        });
+
+        this.byId = Collections.unmodifiableMap(ids);
+        this.listItems = ids.values().stream()
+                .sorted(Comparator.comparing(PizzaDto::idPizza))
+                .<PizzaListItem>map(ListItem::new)
+                .toList();
+        this.availableByName = Collections.unmodifiableMap(names);
+        this.availableSorted = Collections.unmodifiableMap(sorted);
+        this.availableByPrice = sorted.get("price");
+        this.veganCount = vegan;
+        // Las fechas de auditoría no viajan en PizzaDto: la versión se calcula con las entidades leídas.
+        this.eTag = contentHash(pizzas);
+        this.lastModified = lastModified(pizzas);
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Versión del menú: hash del contenido de todas las pizzas. Dos fotos con las mismas pizzas
+     * tienen el mismo valor aunque se hayan cargado en instancias distintas.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Fecha de la última modificación del menú en milisegundos epoch, o -1 si ninguna pizza la tiene.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public Collection<PizzaDto> all() {
+        return byId.values();
+    }
+
+    public Optional<PizzaDto> get(int idPizza) {
+        return Optional.ofNullable(byId.get(idPizza));
+    }
+
+    /**
+     * Pizza disponible con ese nombre, sin distinguir mayúsculas.
+     */
+    public Optional<PizzaDto> findAvailableByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(availableByName.get(normalizeName(name)));
+    }
+
+    /**
+     * Las limit pizzas disponibles más baratas con precio menor o igual a price, de menor a mayor.
+     */
+    public List<PizzaDto> findCheapest(double price, int limit) {
+        List<PizzaDto> result = new ArrayList<>(limit);
+        for (PizzaDto pizza : availableByPrice) {
+            if (pizza.price() > price || result.size() == limit) {
+                break;
+            }
+            result.add(pizza);
+        }
+        return result;
+    }
+
+    public int countVegan() {
+        return veganCount;
+    }
+
+    /**
+     * Página del listado completo con las columnas que se muestran, ordenado por idPizza.
+     */
+    public Page<PizzaListItem> findAll(Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), listItems.size());
+        int to = Math.min(from + pageable.getPageSize(), listItems.size());
+        return new PageImpl<>(listItems.subList(from, to), pageable, listItems.size());
+    }
+
+    /**
+     * Indica si se puede ordenar el listado de disponibles por esta propiedad.
+     */
+    public static boolean isSortable(String property) {
+        return SORTABLE.containsKey(property);
+    }
+
+    /**
+     * Página de las pizzas disponibles con el orden pedido. Solo admite las propiedades
+     * aceptadas por {@link #isSortable(String)}.
+     */
+    public Page<PizzaDto> findAvailable(Pageable pageable) {
+        Sort.Order order = pageable.getSort().isSorted()
+                ? pageable.getSort().iterator().next()
+                : Sort.Order.asc("idPizza");
+        PizzaDto[] sorted = availableSorted.get(order.getProperty());
+        if (sorted == null) {
+            throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+        }
+
+        List<PizzaDto> view = Arrays.asList(sorted);
+        if (order.isDescending()) {
+            view = new ArrayList<>(view);
+            Collections.reverse(view);
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), view.size());
+        int to = Math.min(from + pageable.getPageSize(), view.size());
+        return new PageImpl<>(view.subList(from, to), pageable, view.size());
+    }
+
+    private static String contentHash(Collection<PizzaEntity> pizzas) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        pizzas.stream().sorted(Comparator.comparing(PizzaEntity::getIdPizza)).forEach(pizza -> {
+            String row = String.join("\u001f", String.valueOf(pizza.getIdPizza()), pizza.getName(), pizza.getDescription(),
+                    String.valueOf(pizza.getPrice()), String.valueOf(pizza.getVegetarian()), String.valueOf(pizza.getVegan()),
+                    String.valueOf(pizza.getAvailable()), String.valueOf(pizza.getModifiedDate()));
+            digest.update(row.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        });
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    private static long lastModified(Collection<PizzaEntity> pizzas) {
+        return pizzas.stream()
+                .flatMap(pizza -> Stream.of(pizza.getCreatedDate(), pizza.getModifiedDate()))
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .map(date -> date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(-1L);
+    }
+
+    static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Vista de solo las columnas del listado sobre una pizza de la foto.
+    private static final class ListItem implements PizzaListItem {
+        private final PizzaDto pizza;
+
+        private ListItem(PizzaDto pizza) {
+            this.pizza = pizza;
+        }
+
+        @Override
+        public Integer getIdPizza() {
+            return pizza.idPizza();
+        }
+
+        @Override
+        public String getName() {
+            return pizza.name();
+        }
+
+        @Override
+        public String getDescription() {
+            return pizza.description();
+        }
+
+        @Override
+        public Double getPrice() {
+            return pizza.price();
+        }
+
+        @Override
+        public Boolean getVegetarian() {
+            return pizza.vegetarian();
+        }
+
+        @Override
+        public Boolean getVegan() {
+            return pizza.vegan();
+        }
+
+        @Override
+        public Boolean getAvailable() {
+            return pizza.available();
+        }
+    }
+}
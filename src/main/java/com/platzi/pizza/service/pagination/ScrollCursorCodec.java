@@ -0,0 +1,114 @@
+package com.platzi.pizza.service.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Convierte la posición de un recorrido por keyset (último valor de orden + id) en un token opaco
+ * para el cliente y viceversa. El token lleva también el orden con que se generó (propiedad y
+ * dirección): usarlo con otro orden es un error del cliente, no una página equivocada.
+ */
+@Component
+public class ScrollCursorCodec {
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ScrollCursorCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Token que continúa después del último elemento de la ventana, o null si no hay más.
+     * @param sort Orden con que se consultó la ventana.
+     */
+    public String next(Window<?> window, Sort sort) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> keys.put(property, String.valueOf(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(new Cursor(describe(sort), keys)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode scroll cursor", e);
+        }
+    }
+
+    /**
+     * Reconstruye la posición a partir del token. Sin token se empieza desde el principio.
+     * @param token Token devuelto en la página anterior.
+     * @param entityType Entidad recorrida, usada para recuperar el tipo de cada clave.
+     * @param sort Orden pedido; debe ser el mismo con que se generó el token.
+     * @param expectedKeys Propiedades que debe traer el token (orden + id).
+     * @throws IllegalArgumentException Si el token no es válido o se generó con otro orden.
+     */
+    public ScrollPosition decode(String token, Class<?> entityType, Sort sort, Set<String> expectedKeys) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Cursor cursor;
+        try {
+            cursor = objectMapper.readValue(Base64.getUrlDecoder().decode(token), Cursor.class);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (!describe(sort).equals(cursor.sort()) || cursor.keys() == null || !cursor.keys().keySet().equals(expectedKeys)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        cursor.keys().forEach((property, value) -> keys.put(property, convert(entityType, property, value)));
+        return ScrollPosition.forward(keys);
+    }
+
+    // "price:ASC", o varias separadas por comas.
+    private static String describe(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection())
+                .collect(Collectors.joining(","));
+    }
+
+    private Object convert(Class<?> entityType, String property, String value) {
+        if (value == null || "null".equals(value)) {
+            return null;
+        }
+
+        Field field = ReflectionUtils.findField(entityType, property);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown cursor property: " + property);
+        }
+
+        Class<?> type = field.getType();
+        if (type == Integer.class) return Integer.valueOf(value);
+        if (type == Long.class) return Long.valueOf(value);
+        if (type == Double.class) return Double.valueOf(value);
+        if (type == Boolean.class) return Boolean.valueOf(value);
+        if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+        if (type == String.class) return value;
+
+        throw new IllegalArgumentException("Unsupported cursor property type: " + type.getSimpleName());
+    }
+
+    // Contenido del token: el orden con que se generó y los valores de la última fila.
+    private record Cursor(String sort, Map<String, String> keys) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.platzi.pizza.service.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.service.dto.OrderDto;
+import com.platzi.pizza.service.event.OrdersSavedEvent;
+import com.platzi.pizza.service.menu.MenuCache;
+import com.platzi.pizza.service.menu.MenuSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publica por SSE las órdenes confirmadas para las pantallas de cocina y el tablero de reparto,
+ * en lugar de que consulten /today y /outside cada pocos segundos.
+ * <ul>
+ *     <li>Cada orden se serializa una sola vez y se guarda en un buffer circular de replay-size eventos.
+ *     Un cliente que se reconecta con Last-Event-ID recibe lo que se perdió desde ese id.</li>
+ *     <li>Cada suscriptor tiene su propia cola acotada y un hilo virtual que le escribe. Publicar
+ *     nunca bloquea: si la cola de un suscriptor se llena se cierra su conexión y, al reconectarse,
+ *     se pone al día desde el buffer.</li>
+ *     <li>Si el id ya no está en el buffer (o es de otro arranque) se envía un evento "reset":
+ *     el cliente debe volver a cargar /today y descartar repetidos por idOrder.</li>
+ * </ul>
+ */
+@Component
+public class OrderEventStream {
+    private static final Logger log = LoggerFactory.getLogger(OrderEventStream.class);
+    private static final String ORDER_EVENT = "order";
+    private static final String RESET_EVENT = "reset";
+    private static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final MenuCache menuCache;
+    private final int replaySize;
+    private final int subscriberQueueSize;
+    private final long timeoutMillis;
+
+    // Los ids llevan el arranque como prefijo para no confundir un Last-Event-ID de otra ejecución.
+    private final long epoch = System.currentTimeMillis();
+    private final Object lock = new Object();
+    private final ArrayDeque<StreamEvent> replay;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Counter dropped;
+    private long sequence;
+
+    @Autowired
+    public OrderEventStream(ObjectMapper objectMapper, MenuCache menuCache, MeterRegistry meterRegistry,
+                            @Value("${pizzeria.orders.stream.replay-size:1000}") int replaySize,
+                            @Value("${pizzeria.orders.stream.subscriber-queue:256}") int subscriberQueueSize,
+                            @Value("${pizzeria.orders.stream.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.menuCache = menuCache;
+        this.replaySize = replaySize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.replay = new ArrayDeque<>(replaySize);
+        this.dropped = Counter.builder("pizzeria.orders.stream.dropped")
+                .description("SSE subscribers disconnected because their queue was full")
+                .register(meterRegistry);
+        Gauge.builder("pizzeria.orders.stream.subscribers", subscribers, List::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre una suscripción.
+     * @param methods Métodos de entrega a recibir, o null/vacío para todos.
+     * @param lastEventId Último id recibido antes de reconectarse, o null.
+     */
+    public SseEmitter subscribe(Collection<String> methods, String lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis),
+                methods == null || methods.isEmpty() ? null : Set.copyOf(methods),
+                new ArrayBlockingQueue<>(subscriberQueueSize));
+
+        subscriber.emitter.onCompletion(() -> close(subscriber));
+        subscriber.emitter.onTimeout(() -> close(subscriber));
+        subscriber.emitter.onError(e -> close(subscriber));
+        subscriber.sender = Thread.ofVirtual().name("order-stream-sender").start(() -> send(subscriber));
+
+        // Bajo el mismo candado que la publicación: no se pierde ni se repite ningún evento entre la reposición y los nuevos.
+        synchronized (lock) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<StreamEvent> missed = missedSince(lastEventId);
+                if (missed != null) {
+                    missed = missed.stream().filter(subscriber::accepts).toList();
+                }
+                if (missed == null || missed.size() >= subscriberQueueSize) {
+                    subscriber.queue.offer(new StreamEvent(sequence, RESET_EVENT, null, null));
+                } else {
+                    missed.forEach(subscriber.queue::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener
+    public void onOrdersSaved(OrdersSavedEvent event) {
+        MenuSnapshot menu = menuCache.current();
+        List<byte[]> payloads = new ArrayList<>(event.orders().size());
+        for (OrderEntity order : event.orders()) {
+            try {
+                payloads.add(objectMapper.writeValueAsBytes(OrderDto.fromEntity(order, menu)));
+            } catch (JsonProcessingException e) {
+                log.warn("Could not serialize order {} for the stream", order.getIdOrder(), e);
+                payloads.add(null);
+            }
+        }
+
+        synchronized (lock) {
+            for (int i = 0; i < payloads.size(); i++) {
+                if (payloads.get(i) == null) {
+                    continue;
+                }
+                StreamEvent streamEvent = new StreamEvent(++sequence, ORDER_EVENT,
+                        event.orders().get(i).getMethod(), payloads.get(i));
+                if (replay.size() == replaySize) {
+                    replay.removeFirst();
+                }
+                replay.addLast(streamEvent);
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.accepts(streamEvent) && !subscriber.queue.offer(streamEvent)) {
+                        drop(subscriber);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Mantiene abiertas las conexiones sin órdenes y detecta los clientes que ya se fueron.
+     */
+    @Scheduled(fixedDelayString = "${pizzeria.orders.stream.heartbeat:15s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.queue.offer(HEARTBEAT);
+        }
+    }
+
+    // Eventos posteriores a lastEventId, o null si ya no están en el buffer.
+    private List<StreamEvent> missedSince(String lastEventId) {
+        long lastSequence;
+        try {
+            int separator = lastEventId.indexOf('-');
+            if (separator < 0 || Long.parseLong(lastEventId.substring(0, separator)) != epoch) {
+                return null;
+            }
+            lastSequence = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (lastSequence > sequence || lastSequence < oldest - 1) {
+            return null;
+        }
+        return replay.stream().filter(event -> event.sequence() > lastSequence).toList();
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            while (true) {
+                StreamEvent event = subscriber.queue.take();
+                if (event == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (event.json() == null) {
+                    subscriber.emitter.send(SseEmitter.event().id(id(event)).name(event.name()).data(""));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().id(id(event)).name(event.name())
+                            .data(new String(event.json(), StandardCharsets.UTF_8), MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Order stream subscriber disconnected: {}", e.getMessage());
+        } finally {
+            close(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        dropped.increment();
+        subscriber.emitter.complete();
+        close(subscriber);
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        Thread sender = subscriber.sender;
+        if (sender != null && sender != Thread.currentThread()) {
+            sender.interrupt();
+        }
+    }
+
+    private String id(StreamEvent event) {
+        return epoch + "-" + event.sequence();
+    }
+
+    // method es el método de entrega de la orden; json es null en el aviso de reinicio.
+    private record StreamEvent(long sequence, String name, String method, byte[] json) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> methods;
+        private final BlockingQueue<StreamEvent> queue;
+        private volatile Thread sender;
+
+        private Subscriber(SseEmitter emitter, Set<String> methods, BlockingQueue<StreamEvent> queue) {
+            this.emitter = emitter;
+            this.methods = methods;
+            this.queue = queue;
+        }
+
+        private boolean accepts(StreamEvent event) {
+            return methods == null || methods.contains(event.method());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.platzi.pizza.web.cache;
+
+import java.util.Locale;
+
+/**
+ * Lectura mínima de Accept-Encoding: una codificación se acepta si aparece (o aparece "*")
+ * con un q mayor que cero.
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    static boolean accepts(String header, String coding) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        Double wildcard = null;
+        for (String part : header.split(",")) {
+            String[] tokens = part.split(";");
+            String name = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(tokens);
+            if (name.equals(coding)) {
+                return quality > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,109 @@
+package com.platzi.pizza.web.cache;
+
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cuerpo JSON ya serializado. Las variantes gzip y Brotli se comprimen la primera vez que un
+ * cliente las acepta y se reutilizan después; si dos peticiones comprimen a la vez, ambas obtienen
+ * el mismo resultado y se queda cualquiera de los dos.
+ */
+public final class EncodedResponse {
+    private static final Logger log = LoggerFactory.getLogger(EncodedResponse.class);
+
+    private final String menuVersion;
+    private final byte[] identity;
+    // null si la librería nativa no está disponible o la respuesta no se comprime.
+    private final Encoder.Parameters brotliParameters;
+    private final boolean compressible;
+
+    private volatile byte[] gzip;
+    private volatile byte[] brotli;
+
+    private EncodedResponse(String menuVersion, byte[] identity, Encoder.Parameters brotliParameters, boolean compressible) {
+        this.menuVersion = menuVersion;
+        this.identity = identity;
+        this.brotliParameters = brotliParameters;
+        this.compressible = compressible;
+    }
+
+    /**
+     * @param brotliParameters Parámetros de Brotli, o null para ofrecer solo gzip.
+     */
+    static EncodedResponse compressible(String menuVersion, byte[] identity, Encoder.Parameters brotliParameters) {
+        return new EncodedResponse(menuVersion, identity, brotliParameters, true);
+    }
+
+    /**
+     * Respuesta que siempre se envía sin comprimir, para cuerpos que no vale la pena comprimir.
+     */
+    static EncodedResponse identityOnly(String menuVersion, byte[] identity) {
+        return new EncodedResponse(menuVersion, identity, null, false);
+    }
+
+    public String menuVersion() {
+        return menuVersion;
+    }
+
+    /**
+     * Arma la respuesta con la mejor codificación que acepta el cliente, sin volver a serializar.
+     * @param acceptEncoding Valor del encabezado Accept-Encoding, puede ser null.
+     */
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!compressible) {
+            return builder.body(identity);
+        }
+
+        if (brotliParameters != null && AcceptEncoding.accepts(acceptEncoding, "br")) {
+            byte[] body = brotli();
+            if (body != null) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "br").body(body);
+            }
+        }
+        if (AcceptEncoding.accepts(acceptEncoding, "gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip());
+        }
+        return builder.body(identity);
+    }
+
+    private byte[] gzip() {
+        byte[] body = gzip;
+        if (body == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(identity.length / 4 + 64);
+            try (GZIPOutputStream output = new GZIPOutputStream(buffer)) {
+                output.write(identity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            body = buffer.toByteArray();
+            gzip = body;
+        }
+        return body;
+    }
+
+    private byte[] brotli() {
+        byte[] body = brotli;
+        if (body == null) {
+            try {
+                body = Encoder.compress(identity, brotliParameters);
+            } catch (IOException e) {
+                log.warn("Brotli compression failed, serving gzip instead", e);
+                return null;
+            }
+            brotli = body;
+        }
+        return body;
+    }
+}
@@ -0,0 +1,100 @@
+package com.platzi.pizza.web.cache;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.pizza.service.cache.LruTtlCache;
+import com.platzi.pizza.service.menu.MenuChangedEvent;
+import com.platzi.pizza.service.menu.MenuSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Respuestas del menú ya serializadas a JSON; gzip y Brotli se comprimen solo cuando un cliente
+ * los pide (ver EncodedResponse). La clave es el endpoint con sus parámetros normalizados y cada
+ * entrada recuerda la versión (ETag) del menú con que se armó: si el menú cambió se vuelve a
+ * serializar. Al confirmarse un cambio se vacía todo. Guarda a lo sumo max-entries respuestas y
+ * desaloja la menos usada. Las páginas vacías (más allá del final) no se guardan, para que no
+ * desplacen a las demás, y se envían sin comprimir: serializarlas cuesta poco.
+ */
+@Component
+public class MenuResponseCache {
+    private static final Logger log = LoggerFactory.getLogger(MenuResponseCache.class);
+
+    private final ObjectMapper objectMapper;
+    // null si la librería nativa de Brotli no está disponible.
+    private final Encoder.Parameters brotliParameters;
+
+    private final LruTtlCache<String, EncodedResponse> entries;
+
+    @Autowired
+    public MenuResponseCache(ObjectMapper objectMapper,
+                             @Value("${pizzeria.menu.response-cache.max-entries:512}") int maxEntries,
+                             @Value("${pizzeria.menu.response-cache.brotli-quality:5}") int brotliQuality) {
+        this.objectMapper = objectMapper;
+        // Sin TTL: las entradas se invalidan por versión del menú, no por tiempo.
+        this.entries = new LruTtlCache<>(maxEntries, Long.MAX_VALUE, new LongAdder());
+        this.brotliParameters = loadBrotli() ? new Encoder.Parameters().setQuality(brotliQuality) : null;
+    }
+
+    /**
+     * Devuelve la respuesta codificada del endpoint, serializando solo si no está en caché
+     * o si se armó con otra versión del menú.
+     * @param menu Foto del menú de la que sale el cuerpo y cuyo ETag lleva la respuesta.
+     * @param endpoint Nombre lógico del endpoint, por ejemplo "available".
+     * @param parameters Parámetros ya validados y normalizados, en orden fijo.
+     * @param body Calcula el cuerpo a partir de menu cuando hace falta.
+     */
+    public EncodedResponse get(MenuSnapshot menu, String endpoint, List<?> parameters, Function<MenuSnapshot, ?> body) {
+        String version = menu.getETag();
+        String key = endpoint + parameters.stream().map(String::valueOf).collect(Collectors.joining(",", "(", ")"));
+
+        EncodedResponse cached = entries.get(key);
+        if (cached != null && cached.menuVersion().equals(version)) {
+            return cached;
+        }
+
+        Object value = body.apply(menu);
+        if (value instanceof Page<?> page && !page.hasContent()) {
+            return EncodedResponse.identityOnly(version, serialize(value));
+        }
+        EncodedResponse fresh = EncodedResponse.compressible(version, serialize(value), brotliParameters);
+        entries.put(key, fresh);
+        return fresh;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        entries.clear();
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean loadBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            log.info("Brotli native library not available, menu responses will use gzip: {}", e.getMessage());
+            return false;
+        }
+    }
+}
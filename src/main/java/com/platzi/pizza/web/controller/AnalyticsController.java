@@ -0,0 +1,57 @@
+package com.platzi.pizza.web.controller;
+
+import com.platzi.pizza.service.analytics.Granularity;
+import com.platzi.pizza.service.analytics.SalesAnalytics;
+import com.platzi.pizza.service.dto.PizzaUnitsDto;
+import com.platzi.pizza.service.dto.SalesPointDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    private final SalesAnalytics salesAnalytics;
+
+    @Autowired
+    public AnalyticsController(SalesAnalytics salesAnalytics) {
+        this.salesAnalytics = salesAnalytics;
+    }
+
+    /**
+     * Serie de ventas (ingresos y órdenes por método) entre from y to; por defecto las últimas 24 horas por hora.
+     */
+    @GetMapping("/sales")
+    public ResponseEntity<List<SalesPointDto>> getSales(
+            @RequestParam(defaultValue = "HOUR") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to){
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        return ResponseEntity.ok(salesAnalytics.sales(granularity, start, end));
+    }
+
+    /**
+     * Las pizzas más vendidas (en unidades) entre from y to; por defecto los últimos 7 días.
+     */
+    @GetMapping("/top-pizzas")
+    public ResponseEntity<List<PizzaUnitsDto>> getTopPizzas(
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "5") int limit){
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(7);
+        return ResponseEntity.ok(salesAnalytics.topPizzas(granularity, start, end, limit));
+    }
+}
@@ -0,0 +1,28 @@
+package com.platzi.pizza.web.controller;
+
+import com.platzi.pizza.persistence.cache.SecondLevelCache;
+import com.platzi.pizza.service.dto.CacheRegionStatsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/cache")
+public class CacheController {
+
+    private final SecondLevelCache secondLevelCache;
+
+    @Autowired
+    public CacheController(SecondLevelCache secondLevelCache) {
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    @GetMapping("/regions")
+    public ResponseEntity<List<CacheRegionStatsDto>> getRegionStats(){
+        return ResponseEntity.ok(secondLevelCache.getRegionStats());
+    }
+}
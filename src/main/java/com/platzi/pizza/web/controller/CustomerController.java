@@ -1,7 +1,9 @@
 package com.platzi.pizza.web.controller;
 
 import com.platzi.pizza.persistence.entity.CustomerEntity;
+import com.platzi.pizza.persistence.projection.CustomerListItem;
 import com.platzi.pizza.service.CustomerService;
+import com.platzi.pizza.service.dto.CacheStatsDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,7 +25,7 @@ public class CustomerController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CustomerEntity>> getAll(){
+    public ResponseEntity<List<CustomerListItem>> getAll(){
         return ResponseEntity.ok(customerService.getAll());
     }
 
@@ -31,4 +33,14 @@ public class CustomerController {
     public ResponseEntity<CustomerEntity> getByPhone(@PathVariable String phone){
         return ResponseEntity.ok(customerService.getByPhone(phone));
     }
+
+    @GetMapping("/{idCustomer}")
+    public ResponseEntity<CustomerEntity> get(@PathVariable String idCustomer){
+        return ResponseEntity.ok(customerService.get(idCustomer));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsDto> getCacheStats(){
+        return ResponseEntity.ok(customerService.getCacheStats());
+    }
 }
@@ -0,0 +1,55 @@
+package com.platzi.pizza.web.controller;
+
+import com.platzi.pizza.service.dto.KitchenJobDto;
+import com.platzi.pizza.service.kitchen.KitchenDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/kitchen")
+public class KitchenController {
+    private final KitchenDispatcher kitchenDispatcher;
+
+    @Autowired
+    public KitchenController(KitchenDispatcher kitchenDispatcher) {
+        this.kitchenDispatcher = kitchenDispatcher;
+    }
+
+    /**
+     * Siguiente orden para el horno; 204 si no hay nada en cola.
+     */
+    @PostMapping("/stations/{station}/next")
+    public ResponseEntity<KitchenJobDto> next(@PathVariable int station){
+        if (station < 0 || station >= kitchenDispatcher.getStations()) {
+            return ResponseEntity.notFound().build();
+        }
+        KitchenJobDto job = kitchenDispatcher.next(station);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Marca terminada la orden del horno; 409 si el horno no la estaba preparando.
+     */
+    @PostMapping("/stations/{station}/orders/{idOrder}/done")
+    public ResponseEntity<Void> done(@PathVariable int station, @PathVariable int idOrder){
+        if (station < 0 || station >= kitchenDispatcher.getStations()) {
+            return ResponseEntity.notFound().build();
+        }
+        return kitchenDispatcher.complete(station, idOrder)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<Map<String, Integer>> getQueueDepths(){
+        return ResponseEntity.ok(kitchenDispatcher.getQueueDepths());
+    }
+}
@@ -1,49 +1,171 @@
 package com.platzi.pizza.web.controller;
 
+import com.platzi.pizza.persistence.entity.IdempotencyKeyEntity;
 import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.entity.OrderIngestFailureEntity;
 import com.platzi.pizza.persistence.projection.OrderSumary;
+import com.platzi.pizza.service.IdempotentOrderService;
+import com.platzi.pizza.service.OrderIngestionService;
 import com.platzi.pizza.service.OrderService;
-import org.hibernate.query.Order;
+import com.platzi.pizza.service.dto.CursorPage;
+import com.platzi.pizza.service.dto.IngestionResultDto;
+import com.platzi.pizza.service.dto.OrderDto;
+import com.platzi.pizza.service.stream.OrderEventStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.sql.Struct;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderIngestionService orderIngestionService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final OrderEventStream orderEventStream;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderIngestionService orderIngestionService,
+                           IdempotentOrderService idempotentOrderService, OrderEventStream orderEventStream) {
         this.orderService = orderService;
+        this.orderIngestionService = orderIngestionService;
+        this.idempotentOrderService = idempotentOrderService;
+        this.orderEventStream = orderEventStream;
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderEntity>> getAll(){
+    public ResponseEntity<List<OrderDto>> getAll(){
         return ResponseEntity.ok(orderService.getAll());
     }
 
+    /**
+     * Recorre las órdenes por fecha con un cursor opaco en lugar de número de página.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<OrderEntity>> scroll(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int elements,
+                                                          @RequestParam(defaultValue = "DESC") String sortDirection,
+                                                          @RequestParam(defaultValue = "false") boolean withTotal){
+        try {
+            return ResponseEntity.ok(orderService.scroll(cursor, elements, sortDirection, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Exporta las órdenes como NDJSON sin cargarlas todas en memoria.
+     * Ejemplo: /export?from=2024-01-01T00:00:00&to=2024-02-01T00:00:00&methods=D,C
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<String> methods){
+        StreamingResponseBody body = output -> orderService.exportOrders(from, to, methods, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/today")
-    public ResponseEntity<List<OrderEntity>> getTodayOrders(){
+    public ResponseEntity<List<OrderDto>> getTodayOrders(){
         return ResponseEntity.ok(orderService.getTodayOrders());
     }
 
     @GetMapping("/outside")
-    public ResponseEntity<List<OrderEntity>> getOutSideOrders(){
+    public ResponseEntity<List<OrderDto>> getOutSideOrders(){
         return ResponseEntity.ok(orderService.getOutsideOrders());
     }
 
+    /**
+     * Órdenes confirmadas en tiempo real (SSE), para no consultar /today y /outside periódicamente.
+     * Ejemplo: /stream?methods=D,C. Al reconectarse el navegador envía Last-Event-ID y recibe lo que se perdió.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) List<String> methods,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return orderEventStream.subscribe(methods, lastEventId);
+    }
+
     @GetMapping("/customer/{idCustomer}")
-    public ResponseEntity<List<OrderEntity>> getCustomerOrders(@PathVariable String idCustomer){
+    public ResponseEntity<List<OrderDto>> getCustomerOrders(@PathVariable String idCustomer){
         return ResponseEntity.ok(orderService.getCustomerOrders(idCustomer));
     }
 
+    /**
+     * Guarda una orden nueva; el id lo asigna el servidor, así que una orden con idOrder se rechaza.
+     * Con el encabezado Idempotency-Key los reintentos con la misma clave devuelven la orden creada
+     * por el primero (con Idempotent-Replayed: true) en lugar de duplicarla. Reusar la clave con
+     * otra orden responde 422.
+     */
     @PostMapping
-    public ResponseEntity<OrderEntity> save(@RequestBody OrderEntity order){
-        return ResponseEntity.ok(orderService.save(order));
+    public ResponseEntity<OrderEntity> save(@RequestBody OrderEntity order,
+                                            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+        if (order.getIdOrder() != null) {
+            return ResponseEntity.badRequest().build(); // Las órdenes no se modifican por este endpoint.
+        }
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.ok(orderService.save(order));
+        }
+        if (idempotencyKey.length() > IdempotencyKeyEntity.MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        IdempotentOrderService.Result result;
+        try {
+            result = idempotentOrderService.save(idempotencyKey, order);
+        } catch (IdempotentOrderService.KeyReusedException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.order());
+    }
+
+    /**
+     * Recibe órdenes en bloque (con sus items) y las guarda en segundo plano por lotes.
+     * Responde 202 si se aceptaron todas o 503 si la cola está llena; en ese caso el cuerpo
+     * indica cuántas se aceptaron para que el cliente reintente el resto. Las órdenes aceptadas
+     * que después no se pueden guardar quedan en /bulk/failures.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<IngestionResultDto> ingest(@RequestBody List<OrderEntity> orders) throws InterruptedException {
+        if (orders.stream().anyMatch(order -> order.getIdOrder() != null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        IngestionResultDto result = orderIngestionService.submit(orders);
+        if (result.getRejected() > 0) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(result);
+        }
+
+        return ResponseEntity.accepted().body(result);
+    }
+
+    /**
+     * Órdenes aceptadas por /bulk que no se pudieron guardar, con el error y la orden tal como llegó.
+     */
+    @GetMapping("/bulk/failures")
+    public ResponseEntity<List<OrderIngestFailureEntity>> getIngestFailures(){
+        return ResponseEntity.ok(orderIngestionService.getFailures());
+    }
+
+    /**
+     * Descarta una falla ya revisada o reenviada.
+     */
+    @DeleteMapping("/bulk/failures/{idFailure}")
+    public ResponseEntity<Void> discardIngestFailure(@PathVariable long idFailure){
+        if (orderIngestionService.discardFailure(idFailure)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/summary/{id}")
@@ -51,5 +173,13 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getSummary(id));
     }
 
+    /**
+     * Resúmenes de varias órdenes en una sola llamada, por ejemplo /summary?ids=1,2,3.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<OrderSumary>> getSummaries(@RequestParam List<Integer> ids){
+        return ResponseEntity.ok(orderService.getSummaries(ids));
+    }
+
 
 }
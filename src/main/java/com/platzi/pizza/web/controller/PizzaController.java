@@ -1,28 +1,46 @@
 package com.platzi.pizza.web.controller;
 
+import com.platzi.pizza.persistence.entity.PizzaAuditEntity;
 import com.platzi.pizza.persistence.entity.PizzaEntity;
 import com.platzi.pizza.service.PizzaService;
+import com.platzi.pizza.service.dto.BulkPriceUpdateDto;
+import com.platzi.pizza.service.dto.CursorPage;
+import com.platzi.pizza.service.dto.PizzaDto;
+import com.platzi.pizza.service.dto.PriceUpdateResultDto;
 import com.platzi.pizza.service.dto.UpdatePizzaPriceDto;
+import com.platzi.pizza.service.menu.MenuSnapshot;
+import com.platzi.pizza.web.cache.MenuResponseCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.awt.print.Pageable;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 // Indica que esta clase es un controlador REST que maneja las solicitudes relacionadas con las pizzas.
 @RestController
 @RequestMapping("/api/pizzas") // Define el endpoint base para las solicitudes relacionadas con pizzas.
 public class PizzaController {
 
+    // Tamaño máximo de página de los listados del menú; pedir más se recorta a este valor.
+    private static final int MAX_ELEMENTS = 100;
+
     // Servicio que contiene la lógica de negocio para manejar las pizzas.
     private final PizzaService pizzaService;
 
+    // JSON ya serializado (y comprimido) de los listados más pedidos del menú.
+    private final MenuResponseCache menuResponseCache;
+
     // Constructor con inyección de dependencias para inicializar el servicio.
     @Autowired
-    public PizzaController(PizzaService pizzaService) {
+    public PizzaController(PizzaService pizzaService, MenuResponseCache menuResponseCache) {
         this.pizzaService = pizzaService;
+        this.menuResponseCache = menuResponseCache;
     }
 
     /**
@@ -30,9 +48,17 @@ public class PizzaController {
      * @return Lista de todas las pizzas almacenadas.
      */
     @GetMapping
-    public ResponseEntity<Page<PizzaEntity>> getAll(@RequestParam(defaultValue = "0") int page,
-                                                    @RequestParam(defaultValue = "5") int elements){
-        return ResponseEntity.ok(this.pizzaService.getAll(page, elements));
+    public ResponseEntity<byte[]> getAll(@RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "5") int elements,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                         WebRequest request){
+        if (page < 0 || elements < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = Math.min(elements, MAX_ELEMENTS);
+        return ifMenuModified(request, menu -> menuResponseCache
+                .get(menu, "all", List.of(page, size), snapshot -> this.pizzaService.getAll(snapshot, page, size))
+                .toResponse(acceptEncoding));
     }
 
     /**
@@ -40,42 +66,119 @@ public class PizzaController {
      * @return Lista de pizzas disponibles.
      */
     @GetMapping("/available")
-    public ResponseEntity<Page<PizzaEntity>> getAvailable(@RequestParam(defaultValue = "0") int page,
-                                                          @RequestParam(defaultValue = "2") int elements,
-                                                          @RequestParam(defaultValue = "price") String sortBy,
-                                                          @RequestParam(defaultValue = "ASC") String sortDirection){
-        return ResponseEntity.ok(pizzaService.getAvailable(page, elements, sortBy, sortDirection));
+    public ResponseEntity<byte[]> getAvailable(@RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "2") int elements,
+                                               @RequestParam(defaultValue = "price") String sortBy,
+                                               @RequestParam(defaultValue = "ASC") String sortDirection,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                               WebRequest request){
+        // Solo se aceptan órdenes conocidos, así la caché no crece con valores arbitrarios.
+        Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(sortDirection.trim());
+        if (page < 0 || elements < 1 || direction.isEmpty() || !MenuSnapshot.isSortable(sortBy)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = Math.min(elements, MAX_ELEMENTS);
+        // "asc", "ASC" y " Asc" son el mismo orden y comparten entrada en la caché.
+        String normalized = direction.get().name();
+        return ifMenuModified(request, menu -> menuResponseCache
+                .get(menu, "available", List.of(page, size, sortBy, normalized),
+                        snapshot -> pizzaService.getAvailable(snapshot, page, size, sortBy, normalized))
+                .toResponse(acceptEncoding));
+    }
+
+    /**
+     * Endpoint para recorrer todas las pizzas por cursor en lugar de número de página.
+     * Las páginas se leen de la base (réplica) y no de la foto del menú, así que no llevan su ETag.
+     * @param cursor Token devuelto en nextCursor de la página anterior.
+     * @param withTotal Si se incluye el total de pizzas en la respuesta.
+     * @return Página con las pizzas y el token para la siguiente.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<PizzaDto>> scrollAll(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "5") int elements,
+                                                          @RequestParam(defaultValue = "idPizza") String sortBy,
+                                                          @RequestParam(defaultValue = "ASC") String sortDirection,
+                                                          @RequestParam(defaultValue = "false") boolean withTotal){
+        try {
+            return ResponseEntity.ok(pizzaService.scrollAll(cursor, elements, sortBy, sortDirection, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Cursor inválido o que no corresponde al orden pedido.
+        }
+    }
+
+    /**
+     * Endpoint para recorrer por cursor las pizzas disponibles.
+     */
+    @GetMapping("/available/scroll")
+    public ResponseEntity<CursorPage<PizzaDto>> scrollAvailable(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "2") int elements,
+                                                                @RequestParam(defaultValue = "price") String sortBy,
+                                                                @RequestParam(defaultValue = "ASC") String sortDirection,
+                                                                @RequestParam(defaultValue = "false") boolean withTotal){
+        try {
+            return ResponseEntity.ok(pizzaService.scrollAvailable(cursor, elements, sortBy, sortDirection, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Cursor inválido o que no corresponde al orden pedido.
+        }
     }
 
         /**
      * Endpoint to get pizzas by their description.
      *
      * @param description The description of the pizzas to search for.
-     * @return A ResponseEntity containing a list of PizzaEntity objects that match the given description.
+     * @return A ResponseEntity containing a list of PizzaDto objects that match the given description.
      */
     @GetMapping("whit/{description}")
-    public ResponseEntity<List<PizzaEntity>> getByDescription(@PathVariable String description){
-        return ResponseEntity.ok(pizzaService.getByDescription(description));
+    public ResponseEntity<List<PizzaDto>> getByDescription(@PathVariable String description, WebRequest request){
+        return ifMenuModified(request, menu -> ResponseEntity.ok(pizzaService.getByDescription(menu, description)));
     }
 
     @GetMapping("/without/{ingredient}")
-    public ResponseEntity<List<PizzaEntity>> getWithOut(@PathVariable String ingredient){
-        return ResponseEntity.ok(pizzaService.getWithOutIngredient(ingredient));
+    public ResponseEntity<List<PizzaDto>> getWithOut(@PathVariable String ingredient, WebRequest request){
+        return ifMenuModified(request, menu -> ResponseEntity.ok(pizzaService.getWithOutIngredient(menu, ingredient)));
+    }
+
+    /**
+     * Endpoint para buscar pizzas combinando ingredientes incluidos y excluidos,
+     * por ejemplo /ingredients?with=queso,tomate&without=cebolla.
+     * @param with Ingredientes que debe llevar la pizza.
+     * @param without Ingredientes que no debe llevar la pizza.
+     * @return Lista de pizzas disponibles que cumplen el filtro.
+     */
+    @GetMapping("/ingredients")
+    public ResponseEntity<List<PizzaDto>> getByIngredients(@RequestParam(defaultValue = "") List<String> with,
+                                                           @RequestParam(defaultValue = "") List<String> without,
+                                                           WebRequest request){
+        return ifMenuModified(request, menu -> ResponseEntity.ok(pizzaService.getByIngredients(menu, with, without)));
     }
 
     /**
      * Endpoint para obtener una pizza específica por su ID.
+     * Se lee de la foto del menú, la misma que da el ETag de la respuesta.
      * @param idPizza ID de la pizza a buscar.
      * @return La entidad de la pizza encontrada.
      */
     @GetMapping("/{idPizza}")
-    public ResponseEntity<PizzaEntity> get(@PathVariable int idPizza){
-        return ResponseEntity.ok(pizzaService.get(idPizza));
+    public ResponseEntity<PizzaDto> get(@PathVariable int idPizza, WebRequest request){
+        return ifMenuModified(request, menu -> ResponseEntity.ok(menu.get(idPizza).orElse(null)));
+    }
+
+    /**
+     * Endpoint para consultar el historial de cambios de una pizza.
+     * @param idPizza ID de la pizza.
+     * @return Cambios campo por campo, del más reciente al más antiguo.
+     */
+    @GetMapping("/{idPizza}/history")
+    public ResponseEntity<List<PizzaAuditEntity>> getHistory(@PathVariable int idPizza){
+        return ResponseEntity.ok(pizzaService.getHistory(idPizza));
     }
 
     @GetMapping("/vegan")
-    public int countVegan(){
-        return pizzaService.countVegan();
+    public ResponseEntity<byte[]> countVegan(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                             WebRequest request){
+        return ifMenuModified(request, menu -> menuResponseCache
+                .get(menu, "vegan", List.of(), MenuSnapshot::countVegan)
+                .toResponse(acceptEncoding));
     }
 
     /**
@@ -84,15 +187,15 @@ public class PizzaController {
      * @return La entidad de la pizza encontrada.
      */
     @GetMapping("/name/{name}")
-    public ResponseEntity<PizzaEntity> getByName(@PathVariable String name) {
-        return pizzaService.getByPizzaName(name)
+    public ResponseEntity<PizzaDto> getByName(@PathVariable String name, WebRequest request) {
+        return ifMenuModified(request, menu -> pizzaService.getByPizzaName(menu, name)
                 .map(ResponseEntity::ok) // Si el valor existe, se devuelve con 200 OK
-                .orElse(ResponseEntity.badRequest().build()); // Si no existe, devuelve 400 Bad Request
+                .orElse(ResponseEntity.badRequest().build())); // Si no existe, devuelve 400 Bad Request
     }
 
     @GetMapping("/cheapest/{price}")
-    public ResponseEntity<List<PizzaEntity>> getCheapest(@PathVariable Double price){
-        return ResponseEntity.ok(pizzaService.getCheapest(price));
+    public ResponseEntity<List<PizzaDto>> getCheapest(@PathVariable Double price, WebRequest request){
+        return ifMenuModified(request, menu -> ResponseEntity.ok(pizzaService.getCheapest(menu, price)));
     }
 
 
@@ -134,6 +237,21 @@ public class PizzaController {
         return ResponseEntity.badRequest().build(); // Retorna un error si la pizza no existe.
     }
 
+    /**
+     * Endpoint para cambiar muchos precios en una sola llamada: una lista de precios
+     * o un porcentaje sobre las pizzas que cumplan los filtros (vegan, vegetarian, available).
+     * @param dto Cambios a aplicar.
+     * @return Resultado por pizza; found es false para los ids que no existen.
+     */
+    @PutMapping("/price/bulk")
+    public ResponseEntity<List<PriceUpdateResultDto>> updatePrices(@RequestBody BulkPriceUpdateDto dto){
+        if(dto.getPercentage() == null && (dto.getPrices() == null || dto.getPrices().isEmpty())){
+            return ResponseEntity.badRequest().build(); // No hay nada que actualizar.
+        }
+
+        return ResponseEntity.ok(pizzaService.updatePrices(dto));
+    }
+
     /**
      * Endpoint para eliminar una pizza existente por su ID.
      * @param idPizza ID de la pizza a eliminar.
@@ -148,4 +266,27 @@ public class PizzaController {
 
         return ResponseEntity.badRequest().build(); // Retorna un error si la pizza no existe.
     }
+
+    /**
+     * GET condicional del menú: si el cliente ya tiene la versión vigente (If-None-Match o
+     * If-Modified-Since) responde 304 sin consultar ni serializar nada. Si no, checkNotModified ya
+     * dejó en la respuesta el ETag y el Last-Modified de la foto del menú; aquí solo se agrega no-cache.
+     * @param response Arma la respuesta completa a partir de la misma foto cuyo ETag se envía;
+     *                 solo se llama cuando hay cambios.
+     */
+    private <T> ResponseEntity<T> ifMenuModified(WebRequest request, Function<MenuSnapshot, ResponseEntity<T>> response){
+        MenuSnapshot menu = pizzaService.getMenu();
+        if (request.checkNotModified(menu.getETag(), menu.getLastModified())) {
+            return null; // checkNotModified ya dejó el 304 con sus encabezados.
+        }
+
+        ResponseEntity<T> full = response.apply(menu);
+        if (!full.getStatusCode().is2xxSuccessful()) {
+            return full;
+        }
+        return ResponseEntity.status(full.getStatusCode())
+                .headers(full.getHeaders())
+                .cacheControl(CacheControl.noCache())
+                .body(full.getBody());
+    }
 }
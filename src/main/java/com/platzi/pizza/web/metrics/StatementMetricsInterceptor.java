@@ -0,0 +1,43 @@
+package com.platzi.pizza.web.metrics;
+
+import com.platzi.pizza.persistence.config.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Registra cuántas sentencias SQL ejecutó cada petición, por método de controlador
+ * (métrica pizzeria.http.statements).
+ */
+@Component
+public class StatementMetricsInterceptor implements HandlerInterceptor {
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public StatementMetricsInterceptor(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DistributionSummary.builder("pizzeria.http.statements")
+                .description("SQL statements executed per request")
+                .tag("handler", HandlerObservationConvention.name(handler))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statementCounter.get());
+        statementCounter.clear();
+    }
+}
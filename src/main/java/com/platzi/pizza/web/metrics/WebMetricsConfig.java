@@ -0,0 +1,21 @@
+package com.platzi.pizza.web.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMetricsConfig implements WebMvcConfigurer {
+    private final StatementMetricsInterceptor statementMetricsInterceptor;
+
+    @Autowired
+    public WebMetricsConfig(StatementMetricsInterceptor statementMetricsInterceptor) {
+        this.statementMetricsInterceptor = statementMetricsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementMetricsInterceptor).addPathPatterns("/api/**");
+    }
+}
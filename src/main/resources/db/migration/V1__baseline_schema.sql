@@ -0,0 +1,49 @@
+-- Esquema inicial: las cuatro tablas que creaba spring.jpa.hibernate.ddl-auto=update antes de Flyway.
+-- Las bases existentes se marcan en esta version (spring.flyway.baseline-version=1) y siguen desde V2,
+-- por eso aqui no va ninguna tabla posterior.
+
+CREATE TABLE pizza (
+    id_pizza      INT          NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(30)  NOT NULL,
+    description   VARCHAR(150),
+    price         DECIMAL(5,2) NOT NULL,
+    vegetarian    TINYINT,
+    vegan         TINYINT,
+    available     TINYINT,
+    created_date  DATETIME(6),
+    modified_date DATETIME(6),
+    PRIMARY KEY (id_pizza),
+    CONSTRAINT uk_pizza_name UNIQUE (name)
+);
+
+CREATE TABLE customer (
+    id_customer  VARCHAR(15)  NOT NULL,
+    name         VARCHAR(60)  NOT NULL,
+    address      VARCHAR(100),
+    email        VARCHAR(50)  NOT NULL,
+    phone_number VARCHAR(20),
+    PRIMARY KEY (id_customer),
+    CONSTRAINT uk_customer_email UNIQUE (email)
+);
+
+CREATE TABLE pizza_order (
+    id_order         INT          NOT NULL,
+    id_customer      VARCHAR(15)  NOT NULL,
+    date             DATETIME     NOT NULL,
+    total            DECIMAL(6,2) NOT NULL,
+    method           CHAR(1)      NOT NULL,
+    additional_notes VARCHAR(200),
+    PRIMARY KEY (id_order),
+    CONSTRAINT fk_pizza_order_customer FOREIGN KEY (id_customer) REFERENCES customer (id_customer)
+);
+
+CREATE TABLE order_item (
+    id_order INT          NOT NULL,
+    id_item  INT          NOT NULL,
+    id_pizza INT          NOT NULL,
+    quantity DECIMAL(2,1) NOT NULL,
+    price    DECIMAL(5,2) NOT NULL,
+    PRIMARY KEY (id_order, id_item),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (id_order) REFERENCES pizza_order (id_order),
+    CONSTRAINT fk_order_item_pizza FOREIGN KEY (id_pizza) REFERENCES pizza (id_pizza)
+);
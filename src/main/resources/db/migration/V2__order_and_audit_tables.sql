@@ -0,0 +1,82 @@
+-- Tablas que agregaron los cambios posteriores al esquema inicial.
+
+-- Bloques de ids de OrderEntity (@TableGenerator)
+CREATE TABLE id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+-- Las ordenes anteriores se crearon con AUTO_INCREMENT: los bloques empiezan por encima del mayor
+-- id_order existente (50 = OrderEntity.ID_ALLOCATION_SIZE).
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'pizza_order', COALESCE(MAX(id_order), 0) + 50 + 1 FROM pizza_order;
+
+CREATE TABLE pizza_audit (
+    id_audit   BIGINT      NOT NULL AUTO_INCREMENT,
+    id_pizza   INT         NOT NULL,
+    action     VARCHAR(10) NOT NULL,
+    field      VARCHAR(30),
+    old_value  VARCHAR(150),
+    new_value  VARCHAR(150),
+    changed_at DATETIME    NOT NULL,
+    PRIMARY KEY (id_audit)
+);
+
+CREATE TABLE order_summary (
+    id_order      INT          NOT NULL,
+    customer_name VARCHAR(60)  NOT NULL,
+    order_date    DATETIME     NOT NULL,
+    order_total   DECIMAL(6,2) NOT NULL,
+    pizza_names   VARCHAR(1000),
+    PRIMARY KEY (id_order)
+);
+
+CREATE TABLE idempotency_key (
+    idempotency_key VARCHAR(100) NOT NULL,
+    id_order        INT          NOT NULL,
+    request_hash    CHAR(64)     NOT NULL,
+    created_date    DATETIME     NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE TABLE pizza_order_archive (
+    id_order         INT          NOT NULL,
+    id_customer      VARCHAR(15)  NOT NULL,
+    date             DATETIME     NOT NULL,
+    total            DECIMAL(6,2) NOT NULL,
+    method           CHAR(1)      NOT NULL,
+    additional_notes VARCHAR(200),
+    PRIMARY KEY (id_order)
+);
+
+CREATE TABLE order_item_archive (
+    id_order INT          NOT NULL,
+    id_item  INT          NOT NULL,
+    id_pizza INT          NOT NULL,
+    quantity DECIMAL(2,1) NOT NULL,
+    price    DECIMAL(5,2) NOT NULL,
+    PRIMARY KEY (id_order, id_item),
+    CONSTRAINT fk_order_item_archive_order FOREIGN KEY (id_order) REFERENCES pizza_order_archive (id_order)
+);
+
+-- Candado de las tareas programadas que pueden correr en varias instancias (OrderArchiver): la
+-- instancia locked_by tiene la tarea hasta locked_until y lo renueva en cada bloque.
+CREATE TABLE scheduled_lock (
+    lock_name    VARCHAR(50) NOT NULL,
+    locked_until DATETIME    NOT NULL,
+    locked_by    VARCHAR(36),
+    PRIMARY KEY (lock_name)
+);
+
+INSERT INTO scheduled_lock (lock_name, locked_until) VALUES ('order_archive', '2000-01-01 00:00:00');
+
+-- Ordenes de la ingesta en bloque que no se pudieron guardar (OrderIngestionService)
+CREATE TABLE order_ingest_failure (
+    id_failure  BIGINT       NOT NULL AUTO_INCREMENT,
+    id_customer VARCHAR(15),
+    payload     TEXT         NOT NULL,
+    error       VARCHAR(500) NOT NULL,
+    failed_at   DATETIME     NOT NULL,
+    PRIMARY KEY (id_failure)
+);
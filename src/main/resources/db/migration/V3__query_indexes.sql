@@ -0,0 +1,29 @@
+-- Indices para los filtros de los repositorios. RepositoryQueryPlanTest corre EXPLAIN de cada
+-- consulta y falla si alguna recorre una tabla completa sin estar permitido.
+
+-- OrderRepository.findLinesByDateAfter, streamByDateAndMethod, la seleccion de ordenes a archivar y el
+-- cursor de findAllBy (ORDER BY date, id_order y la condicion date/id_order del keyset). InnoDB ya agrega
+-- la clave primaria a cada indice; se declara para que el plan no dependa de eso.
+CREATE INDEX idx_pizza_order_date_id ON pizza_order (date, id_order);
+-- findCustomerOrderLines (tambien sirve a la llave foranea hacia customer)
+CREATE INDEX idx_pizza_order_customer ON pizza_order (id_customer);
+-- findLinesByMethodIn; la fecha como segunda columna sirve a los filtros por metodo y rango
+CREATE INDEX idx_pizza_order_method_date ON pizza_order (method, date);
+
+-- PizzaRepository.countByAvailableTrue y el recorrido por cursor de las disponibles ordenadas por precio
+CREATE INDEX idx_pizza_available_price ON pizza (available, price);
+
+-- findSummary: el JOIN lee id_pizza de order_item sin ir a la fila completa. pizza y customer
+-- se leen por clave primaria, que en InnoDB ya incluye name.
+CREATE INDEX idx_order_item_order_pizza ON order_item (id_order, id_pizza);
+
+-- PizzaAuditRepository.findByIdPizzaOrderByIdAuditDesc
+CREATE INDEX idx_pizza_audit_pizza ON pizza_audit (id_pizza, id_audit);
+
+-- IdempotencyKeyRepository.deleteCreatedBefore
+CREATE INDEX idx_idempotency_key_created ON idempotency_key (created_date);
+
+-- Las mismas consultas sobre el archivo (OrderArchiveRepository)
+CREATE INDEX idx_pizza_order_archive_date ON pizza_order_archive (date);
+CREATE INDEX idx_pizza_order_archive_customer ON pizza_order_archive (id_customer);
+CREATE INDEX idx_pizza_order_archive_method_date ON pizza_order_archive (method, date);
@@ -0,0 +1,10 @@
+-- Resumenes de las ordenes guardadas antes de order_summary, calculados una sola vez con el mismo
+-- JOIN que OrderRepository.findSummary. Las ordenes nuevas escriben su resumen al guardarse.
+INSERT INTO order_summary (id_order, customer_name, order_date, order_total, pizza_names)
+SELECT po.id_order, cu.name, po.date, po.total, LEFT(GROUP_CONCAT(pi.name), 1000)
+FROM pizza_order po
+INNER JOIN customer cu ON po.id_customer = cu.id_customer
+INNER JOIN order_item oi ON po.id_order = oi.id_order
+INNER JOIN pizza pi ON oi.id_pizza = pi.id_pizza
+WHERE NOT EXISTS (SELECT 1 FROM order_summary os WHERE os.id_order = po.id_order)
+GROUP BY po.id_order, cu.name, po.date, po.total;
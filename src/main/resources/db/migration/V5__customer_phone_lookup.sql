@@ -0,0 +1,12 @@
+-- Telefono solo con digitos, la clave de CustomerLookupCache, para que findByPhone encuentre
+-- "55 1234-5678" cuando se busca 5512345678. phone_number se queda tal como se capturo; al guardar,
+-- CustomerEntity calcula phone_lookup.
+ALTER TABLE customer ADD COLUMN phone_lookup VARCHAR(20);
+UPDATE customer SET phone_lookup = REGEXP_REPLACE(phone_number, '[^0-9]', '') WHERE phone_number IS NOT NULL;
+-- CustomerRepository.findByPhone
+CREATE INDEX idx_customer_phone_lookup ON customer (phone_lookup);
+
+-- Marca de la ultima escritura de cada cliente, la pone la base en cualquier instancia.
+-- CustomerRepository.findPhoneNumbersModifiedSince la usa para completar el filtro de Bloom entre reconstrucciones.
+ALTER TABLE customer ADD COLUMN modified_date DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL;
+CREATE INDEX idx_customer_modified ON customer (modified_date);
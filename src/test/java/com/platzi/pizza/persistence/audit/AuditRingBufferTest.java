@@ -0,0 +1,104 @@
+package com.platzi.pizza.persistence.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cola de eventos de auditoría: orden de llegada con un solo hilo, y con varios productores y
+ * consumidores cada evento aceptado se entrega exactamente una vez.
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void keepsArrivalOrderAndRejectsWhenFull() {
+        // La capacidad se redondea a la siguiente potencia de dos.
+        AuditRingBuffer buffer = new AuditRingBuffer(3);
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(buffer.offer(event(i)));
+        }
+        assertFalse(buffer.offer(event(5)));
+
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll().idPizza());
+        }
+        assertNull(buffer.poll());
+
+        // Después de vaciarse las celdas se reutilizan.
+        assertTrue(buffer.offer(event(6)));
+        assertEquals(6, buffer.poll().idPizza());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void concurrentProducersAndConsumersDeliverEachEventOnce() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 20_000;
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger remaining = new AtomicInteger(producers * perProducer);
+            Set<Integer> delivered = ConcurrentHashMap.newKeySet();
+            List<Future<?>> tasks = new ArrayList<>();
+
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + perProducer; i++) {
+                        // Con la cola llena se reintenta: aquí no se quiere perder ningún evento.
+                        while (!buffer.offer(event(i))) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    while (remaining.get() > 0) {
+                        AuditEvent event = buffer.poll();
+                        if (event == null) {
+                            Thread.onSpinWait();
+                            continue;
+                        }
+                        assertTrue(delivered.add(event.idPizza()), "Event delivered twice: " + event.idPizza());
+                        remaining.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(producers * perProducer, delivered.size());
+            assertNull(buffer.poll());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static AuditEvent event(int idPizza) {
+        return new AuditEvent(idPizza, AuditEvent.UPDATE, "price", "10.0", "12.0", LocalDateTime.now());
+    }
+}
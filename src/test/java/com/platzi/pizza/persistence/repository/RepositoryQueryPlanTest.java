@@ -0,0 +1,332 @@
+package com.platzi.pizza.persistence.repository;
+
+import com.platzi.pizza.service.dto.UpdatePizzaPriceDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Corre EXPLAIN sobre H2 en modo MySQL, con el esquema de las migraciones de Flyway, para cada
+ * consulta de los repositorios. Cada método se invoca una vez, se capturan las sentencias que
+ * prepara y falla si alguna recorre completa una tabla que no está permitida en su caso.
+ * Los métodos nuevos de un repositorio deben agregarse al catálogo.
+ * <p>
+ * H2 es un sustituto de MySQL: su optimizador no es el de InnoDB, así que este test detecta consultas
+ * sin un índice que las sirva, no garantiza el plan que elija MySQL.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false"
+})
+@Transactional
+class RepositoryQueryPlanTest {
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\*\\s*([\\w.]+)\\.tableScan\\s*\\*/", Pattern.CASE_INSENSITIVE);
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PizzaRepository pizzaRepository;
+    @Autowired
+    private PizzaPageSortRepository pizzaPageSortRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private PizzaAuditRepository pizzaAuditRepository;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private PizzaPriceBatchRepository pizzaPriceBatchRepository;
+    @Autowired
+    private OrderArchiveBatchRepository orderArchiveBatchRepository;
+
+    @Test
+    void everyRepositoryQueryIsInTheCatalogue() {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : repositoryTypes()) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (Modifier.isPublic(method.getModifiers()) && !method.isSynthetic() && !method.isDefault()) {
+                    declared.add(key(repository, method));
+                }
+            }
+        }
+
+        assertEquals(declared, new TreeSet<>(catalogue().keySet()));
+    }
+
+    @Test
+    void queriesUseIndexes() throws Exception {
+        List<String> failures = new ArrayList<>();
+
+        for (Map.Entry<String, PlanCase> entry : catalogue().entrySet()) {
+            PlanCase planCase = entry.getValue();
+            List<String> statements = StatementCapture.capture(planCase.call());
+            if (statements.isEmpty()) {
+                failures.add(entry.getKey() + ": no SQL was executed");
+            }
+
+            for (String sql : statements) {
+                String plan = explain(sql);
+                Matcher scan = TABLE_SCAN.matcher(plan);
+                while (scan.find()) {
+                    String table = tableName(scan.group(1));
+                    if (!planCase.allowedScans().contains(table)) {
+                        failures.add(entry.getKey() + ": full scan of " + table + "\n  " + sql + "\n  " + plan);
+                    }
+                }
+            }
+        }
+
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    /**
+     * Una entrada por método de repositorio (Clase.método/número de parámetros). Las tablas permitidas
+     * son las de los listados completos, donde recorrer la tabla es el plan correcto.
+     */
+    private Map<String, PlanCase> catalogue() {
+        Map<String, PlanCase> cases = new LinkedHashMap<>();
+
+        indexed(cases, "PizzaRepository.countByAvailableTrue/0", () -> pizzaRepository.countByAvailableTrue());
+        indexed(cases, "PizzaRepository.updatePrice/1", () -> {
+            pizzaRepository.updatePrice(price(1, 15.0));
+            return null;
+        });
+
+        indexed(cases, "PizzaPageSortRepository.findAllBy/3", () -> pizzaPageSortRepository.findAllBy(
+                ScrollPosition.forward(Map.of("idPizza", 10)), Sort.by("idPizza"), Limit.of(10)));
+        indexed(cases, "PizzaPageSortRepository.findByAvailableTrue/3", () -> pizzaPageSortRepository.findByAvailableTrue(
+                ScrollPosition.forward(Map.of("idPizza", 10)), Sort.by("idPizza"), Limit.of(10)));
+
+        listing(cases, "OrderRepository.findAllLines/0", Set.of("pizza_order"), () -> orderRepository.findAllLines());
+        indexed(cases, "OrderRepository.findLinesByDateAfter/1", () -> orderRepository.findLinesByDateAfter(NOW.minusDays(1)));
+        indexed(cases, "OrderRepository.findLinesByMethodIn/1", () -> orderRepository.findLinesByMethodIn(List.of("D", "C")));
+        indexed(cases, "OrderRepository.findCustomerOrderLines/1", () -> orderRepository.findCustomerOrderLines("1"));
+        indexed(cases, "OrderRepository.findAllBy/3", () -> orderRepository.findAllBy(
+                ScrollPosition.forward(Map.of("date", NOW, "idOrder", 10)), Sort.by("date", "idOrder"), Limit.of(20)));
+        indexed(cases, "OrderRepository.streamByDateAndMethod/3", () -> consume(
+                orderRepository.streamByDateAndMethod(NOW.minusDays(1), NOW, List.of("D", "C", "S"))));
+        indexed(cases, "OrderRepository.findSummary/1", () -> orderRepository.findSummary(1));
+        // Completa todos los resúmenes que faltan: recorre las órdenes a propósito
+        listing(cases, "OrderSummaryRepository.insertMissing/0", Set.of("pizza_order", "customer", "order_item", "pizza"),
+                () -> orderSummaryRepository.insertMissing());
+
+        listing(cases, "OrderArchiveRepository.findAllLines/0", Set.of("pizza_order_archive"), () -> orderArchiveRepository.findAllLines());
+        indexed(cases, "OrderArchiveRepository.findLinesByDateAfter/1", () -> orderArchiveRepository.findLinesByDateAfter(NOW.minusDays(1)));
+        indexed(cases, "OrderArchiveRepository.findLinesByMethodIn/1", () -> orderArchiveRepository.findLinesByMethodIn(List.of("D", "C")));
+        indexed(cases, "OrderArchiveRepository.findCustomerOrderLines/1", () -> orderArchiveRepository.findCustomerOrderLines("1"));
+        indexed(cases, "OrderArchiveRepository.streamByDateAndMethod/3", () -> consume(
+                orderArchiveRepository.streamByDateAndMethod(NOW.minusDays(1), NOW, List.of("D", "C", "S"))));
+        indexed(cases, "OrderArchiveRepository.findLatestDate/0", () -> orderArchiveRepository.findLatestDate());
+
+        indexed(cases, "CustomerRepository.findByPhone/1", () -> customerRepository.findByPhone("5551234567"));
+        // Todos los teléfonos para el filtro de Bloom
+        listing(cases, "CustomerRepository.findAllPhoneNumbers/0", Set.of("customer"), () -> customerRepository.findAllPhoneNumbers());
+        indexed(cases, "CustomerRepository.findPhoneNumbersModifiedSince/1", () -> customerRepository.findPhoneNumbersModifiedSince(NOW.minusMinutes(1)));
+        listing(cases, "CustomerRepository.findAllListItems/0", Set.of("customer"), () -> customerRepository.findAllListItems());
+
+        indexed(cases, "PizzaAuditRepository.findByIdPizzaOrderByIdAuditDesc/1", () -> pizzaAuditRepository.findByIdPizzaOrderByIdAuditDesc(1));
+
+        indexed(cases, "IdempotencyKeyRepository.insert/4", () -> {
+            idempotencyKeyRepository.insert("plan-check", 1, "0".repeat(64), NOW);
+            return null;
+        });
+        indexed(cases, "IdempotencyKeyRepository.deleteCreatedBefore/1", () -> idempotencyKeyRepository.deleteCreatedBefore(NOW.minusDays(1)));
+
+        indexed(cases, "PizzaPriceBatchRepository.updatePrices/1", () -> pizzaPriceBatchRepository.updatePrices(List.of(price(1, 15.0), price(2, 16.0))));
+        indexed(cases, "PizzaPriceBatchRepository.applyFactor/4", () -> pizzaPriceBatchRepository.applyFactor(new BigDecimal("1.10"), null, null, true));
+
+        indexed(cases, "OrderArchiveBatchRepository.findIdsBefore/2", () -> orderArchiveBatchRepository.findIdsBefore(NOW.minusDays(90), 500));
+        indexed(cases, "OrderArchiveBatchRepository.archive/1", () -> orderArchiveBatchRepository.archive(List.of(1, 2)));
+        indexed(cases, "OrderArchiveBatchRepository.lock/4", () -> orderArchiveBatchRepository.lock("order_archive", "test", NOW, NOW.plusMinutes(10)));
+        indexed(cases, "OrderArchiveBatchRepository.renewLock/3", () -> orderArchiveBatchRepository.renewLock("order_archive", "test", NOW.plusMinutes(10)));
+        indexed(cases, "OrderArchiveBatchRepository.unlock/3", () -> orderArchiveBatchRepository.unlock("order_archive", "test", NOW));
+
+        return cases;
+    }
+
+    // Interfaces de Spring Data y repositorios JDBC (@Repository) de este paquete.
+    private List<Class<?>> repositoryTypes() {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        // Los proxies de Spring Data implementan la interfaz del repositorio.
+        for (Object bean : context.getBeansOfType(org.springframework.data.repository.Repository.class).values()) {
+            for (Class<?> type : bean.getClass().getInterfaces()) {
+                if (org.springframework.data.repository.Repository.class.isAssignableFrom(type)) {
+                    types.add(type);
+                }
+            }
+        }
+        for (Object bean : context.getBeansWithAnnotation(Repository.class).values()) {
+            Class<?> type = AopUtils.getTargetClass(bean);
+            if (!Proxy.isProxyClass(type)) {
+                types.add(type);
+            }
+        }
+        return types.stream()
+                .filter(type -> type.getPackageName().equals(getClass().getPackageName()))
+                .toList();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                StringBuilder text = new StringBuilder();
+                while (plan.next()) {
+                    text.append(plan.getString(1)).append(' ');
+                }
+                return text.toString().replaceAll("\\s+", " ");
+            }
+        });
+    }
+
+    private static String tableName(String qualified) {
+        return qualified.substring(qualified.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(Class<?> repository, Method method) {
+        return repository.getSimpleName() + "." + method.getName() + "/" + method.getParameterCount();
+    }
+
+    private static void indexed(Map<String, PlanCase> cases, String key, QueryCall call) {
+        cases.put(key, new PlanCase(Set.of(), call));
+    }
+
+    private static void listing(Map<String, PlanCase> cases, String key, Set<String> allowedScans, QueryCall call) {
+        cases.put(key, new PlanCase(allowedScans, call));
+    }
+
+    private static Object consume(Stream<?> stream) {
+        try (stream) {
+            return stream.toList();
+        }
+    }
+
+    private static UpdatePizzaPriceDto price(int pizzaId, double newPrice) {
+        UpdatePizzaPriceDto price = new UpdatePizzaPriceDto();
+        price.setPizzaId(pizzaId);
+        price.setNewPrice(newPrice);
+        return price;
+    }
+
+    @FunctionalInterface
+    interface QueryCall {
+        Object run() throws Exception;
+    }
+
+    private record PlanCase(Set<String> allowedScans, QueryCall call) {
+    }
+
+    /**
+     * Envuelve el DataSource para anotar el SQL que se prepara en el hilo del test mientras dura una captura.
+     */
+    static class StatementCapture extends DelegatingDataSource {
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        StatementCapture(DataSource target) {
+            super(target);
+        }
+
+        static List<String> capture(QueryCall call) throws Exception {
+            List<String> statements = new ArrayList<>();
+            CAPTURED.set(statements);
+            try {
+                call.run();
+            } finally {
+                CAPTURED.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private static Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(StatementCapture.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        List<String> statements = CAPTURED.get();
+                        if (statements != null && method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                            statements.add(sql);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        static BeanPostProcessor statementCapturePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof StatementCapture)
+                            ? new StatementCapture(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+}
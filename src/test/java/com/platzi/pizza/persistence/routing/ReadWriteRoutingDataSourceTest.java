@@ -0,0 +1,156 @@
+package com.platzi.pizza.persistence.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Dos bases H2 embebidas hacen de primario y de réplica; cada una guarda su nombre en la tabla
+ * node para saber a cuál llegó cada consulta.
+ */
+class ReadWriteRoutingDataSourceTest {
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        Fixture fixture = new Fixture(Duration.ZERO);
+
+        assertEquals("replica", fixture.read());
+        assertEquals("primary", fixture.write());
+    }
+
+    @Test
+    void statementsOutsideTransactionsGoToThePrimary() {
+        Fixture fixture = new Fixture(Duration.ZERO);
+
+        assertEquals("primary", fixture.jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void clientReadsItsOwnWritesFromThePrimaryDuringTheWindow() {
+        Fixture fixture = new Fixture(Duration.ofMinutes(1));
+
+        fixture.tracker.bind("client-a");
+        assertEquals("replica", fixture.read());
+        fixture.write();
+        assertEquals("primary", fixture.read());
+
+        fixture.tracker.bind("client-b");
+        assertEquals("replica", fixture.read());
+        fixture.tracker.unbind();
+    }
+
+    @Test
+    void stickinessExpiresAfterTheWindow() throws InterruptedException {
+        Fixture fixture = new Fixture(Duration.ofMillis(50));
+
+        fixture.tracker.bind("client-a");
+        fixture.write();
+        assertEquals("primary", fixture.read());
+        Thread.sleep(100);
+        assertEquals("replica", fixture.read());
+        fixture.tracker.unbind();
+    }
+
+    @Test
+    void writesRecordedFromAnotherThreadMakeTheirClientSticky() throws InterruptedException {
+        Fixture fixture = new Fixture(Duration.ofMinutes(1));
+
+        // Como el hilo de escritura de la ingesta: sin cliente ligado, marca al que envió las órdenes.
+        Thread writer = new Thread(() -> {
+            fixture.write();
+            fixture.tracker.recordWrite("client-a");
+        });
+        writer.start();
+        writer.join();
+
+        fixture.tracker.bind("client-a");
+        assertEquals("primary", fixture.read());
+        fixture.tracker.bind("client-b");
+        assertEquals("replica", fixture.read());
+        fixture.tracker.unbind();
+    }
+
+    @Test
+    void rolledBackWritesDoNotMakeTheClientSticky() {
+        Fixture fixture = new Fixture(Duration.ofMinutes(1));
+
+        fixture.tracker.bind("client-a");
+        fixture.writeTransaction.executeWithoutResult(status -> {
+            fixture.jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", fixture.read());
+        fixture.tracker.unbind();
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(10), writes INT)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", name);
+        return database;
+    }
+
+    private class Fixture {
+        final ReadYourWritesTracker tracker;
+        final JdbcTemplate jdbcTemplate;
+        final TransactionTemplate readOnlyTransaction;
+        final TransactionTemplate writeTransaction;
+
+        Fixture(Duration stickyWindow) {
+            tracker = new ReadYourWritesTracker(stickyWindow);
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(tracker);
+            routing.setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+            routing.setDefaultTargetDataSource(primary);
+            routing.afterPropertiesSet();
+
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            writeTransaction = new TransactionTemplate(transactionManager);
+        }
+
+        String read() {
+            return readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String write() {
+            return writeTransaction.execute(status -> {
+                jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+                return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+            });
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.platzi.pizza.service;
+
+import com.platzi.pizza.persistence.entity.IdempotencyKeyEntity;
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.persistence.repository.IdempotencyKeyRepository;
+import com.platzi.pizza.persistence.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reintentos con la misma Idempotency-Key: en memoria (peticiones simultáneas y dentro del TTL)
+ * y contra la clave guardada en la base (otra instancia o después del TTL). Los repositorios son
+ * mocks; las transacciones no hacen nada.
+ */
+class IdempotentOrderServiceTest {
+    private static final String KEY = "retry-1";
+
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        orderRepository = mock(OrderRepository.class);
+        idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentRetriesWithTheSameKeyInsertOnce() throws Exception {
+        IdempotentOrderService service = service(Duration.ofMinutes(10));
+        OrderEntity created = order(1);
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.save(any())).thenAnswer(invocation -> {
+            inserting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return created;
+        });
+
+        // La primera petición queda insertando; las demás llegan mientras tanto.
+        Future<IdempotentOrderService.Result> first = executor.submit(() -> service.save(KEY, order(null)));
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+        List<Future<IdempotentOrderService.Result>> retries = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            retries.add(executor.submit(() -> service.save(KEY, order(null))));
+        }
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        assertSame(created, first.get().order());
+        for (Future<IdempotentOrderService.Result> retry : retries) {
+            IdempotentOrderService.Result result = retry.get(5, TimeUnit.SECONDS);
+            assertTrue(result.replayed());
+            assertSame(created, result.order());
+        }
+        verify(orderService, times(1)).save(any());
+        verify(idempotencyKeyRepository, times(1)).insert(eq(KEY), eq(1), anyString(), any());
+    }
+
+    @Test
+    void completedResultIsReplayedFromMemoryWithinTheTtl() {
+        IdempotentOrderService service = service(Duration.ofMinutes(10));
+        OrderEntity created = order(1);
+        when(orderService.save(any())).thenReturn(created);
+
+        assertFalse(service.save(KEY, order(null)).replayed());
+        IdempotentOrderService.Result retry = service.save(KEY, order(null));
+
+        assertTrue(retry.replayed());
+        assertSame(created, retry.order());
+        // El reintento no vuelve a buscar la clave en la base.
+        verify(idempotencyKeyRepository, times(1)).findById(KEY);
+    }
+
+    @Test
+    void afterTheTtlTheStoredKeyIsLookedUp() {
+        IdempotentOrderService service = service(Duration.ZERO);
+        OrderEntity created = order(1);
+        when(orderService.save(any())).thenReturn(created);
+
+        assertFalse(service.save(KEY, order(null)).replayed());
+
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(key(1)));
+        when(orderRepository.findById(1)).thenReturn(Optional.of(created));
+        IdempotentOrderService.Result retry = service.save(KEY, order(null));
+
+        assertTrue(retry.replayed());
+        assertSame(created, retry.order());
+        verify(orderService, times(1)).save(any());
+        verify(idempotencyKeyRepository, times(2)).findById(KEY);
+    }
+
+    @Test
+    void keyTakenByAnotherInstanceReturnsItsOrder() {
+        IdempotentOrderService service = service(Duration.ofMinutes(10));
+        OrderEntity winner = order(7);
+        when(orderService.save(any())).thenReturn(order(8));
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(idempotencyKeyRepository).insert(eq(KEY), anyInt(), anyString(), any());
+        // Antes de insertar la clave no existe; después del conflicto ya está la de la otra instancia.
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.empty(), Optional.of(key(7)));
+        when(orderRepository.findById(7)).thenReturn(Optional.of(winner));
+
+        IdempotentOrderService.Result result = service.save(KEY, order(null));
+
+        assertTrue(result.replayed());
+        assertSame(winner, result.order());
+    }
+
+    @Test
+    void failedInsertIsNotRememberedForTheNextRetry() {
+        IdempotentOrderService service = service(Duration.ofMinutes(10));
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(idempotencyKeyRepository).insert(anyString(), anyInt(), anyString(), any());
+        when(orderService.save(any())).thenReturn(order(8));
+
+        // Conflicto sin orden ganadora (por ejemplo, la clave ya se purgó): se propaga el error.
+        assertThrows(DataIntegrityViolationException.class, () -> service.save(KEY, order(null)));
+        assertThrows(DataIntegrityViolationException.class, () -> service.save(KEY, order(null)));
+
+        verify(orderService, times(2)).save(any());
+    }
+
+    @Test
+    void keyReusedWithAnotherOrderIsRejected() {
+        IdempotentOrderService service = service(Duration.ofMinutes(10));
+        when(orderService.save(any())).thenReturn(order(1));
+        assertFalse(service.save(KEY, order(null)).replayed());
+
+        OrderEntity other = order(null);
+        other.setIdCustomer("200002");
+        // Ni el resultado en memoria ni la clave guardada se devuelven a otra petición.
+        assertThrows(IdempotentOrderService.KeyReusedException.class, () -> service.save(KEY, other));
+
+        IdempotentOrderService expired = service(Duration.ZERO);
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(key(1)));
+        assertThrows(IdempotentOrderService.KeyReusedException.class, () -> expired.save(KEY, other));
+
+        verify(orderService, times(1)).save(any());
+        verify(orderRepository, never()).findById(any());
+    }
+
+    private IdempotentOrderService service(Duration ttl) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return new IdempotentOrderService(orderService, orderRepository, idempotencyKeyRepository,
+                transactionManager, ttl, Duration.ofHours(24));
+    }
+
+    private static OrderEntity order(Integer idOrder) {
+        OrderEntity order = new OrderEntity();
+        order.setIdOrder(idOrder);
+        order.setIdCustomer("100001");
+        order.setMethod("D");
+        return order;
+    }
+
+    private static IdempotencyKeyEntity key(int idOrder) {
+        IdempotencyKeyEntity key = new IdempotencyKeyEntity();
+        key.setIdempotencyKey(KEY);
+        key.setIdOrder(idOrder);
+        key.setRequestHash(IdempotentOrderService.fingerprint(order(null)));
+        return key;
+    }
+}
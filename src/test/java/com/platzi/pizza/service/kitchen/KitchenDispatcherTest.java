@@ -0,0 +1,174 @@
+package com.platzi.pizza.service.kitchen;
+
+import com.platzi.pizza.persistence.entity.OrderEntity;
+import com.platzi.pizza.service.dto.KitchenJobDto;
+import com.platzi.pizza.service.event.OrdersSavedEvent;
+import com.platzi.pizza.service.menu.MenuCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Reparto de órdenes entre hornos: cada orden sale una sola vez aunque varios hornos (o varias
+ * pantallas del mismo horno) pidan a la vez, y la espera adelanta a las órdenes de menor prioridad.
+ * Las órdenes no llevan ítems, así que el menú no se consulta.
+ */
+class KitchenDispatcherTest {
+    private static final int STATIONS = 4;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentStationsTakeEachOrderOnce() throws Exception {
+        KitchenDispatcher dispatcher = dispatcher(Duration.ofMinutes(2));
+        int orders = 500;
+        List<OrderEntity> saved = new ArrayList<>();
+        for (int i = 1; i <= orders; i++) {
+            saved.add(order(i, i % 3 == 0 ? "D" : i % 3 == 1 ? "C" : "S"));
+        }
+        dispatcher.onOrdersSaved(new OrdersSavedEvent(saved));
+
+        Set<Integer> taken = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> stations = new ArrayList<>();
+        for (int station = 0; station < STATIONS; station++) {
+            int current = station;
+            stations.add(executor.submit(() -> {
+                start.await();
+                int count = 0;
+                KitchenJobDto job;
+                while ((job = dispatcher.next(current)) != null) {
+                    assertTrue(taken.add(job.order().idOrder()), "Order taken twice: " + job.order().idOrder());
+                    assertTrue(dispatcher.complete(current, job.order().idOrder()));
+                    count++;
+                }
+                return count;
+            }));
+        }
+        start.countDown();
+
+        int total = 0;
+        for (Future<Integer> station : stations) {
+            total += station.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(orders, total);
+        assertEquals(orders, taken.size());
+        dispatcher.getQueueDepths().values().forEach(depth -> assertEquals(0, depth));
+    }
+
+    @Test
+    void simultaneousRequestsFromOneStationTakeOneOrder() throws Exception {
+        KitchenDispatcher dispatcher = dispatcher(Duration.ofMinutes(2));
+        dispatcher.onOrdersSaved(new OrdersSavedEvent(List.of(order(1, "D"), order(2, "D"), order(3, "D"))));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<KitchenJobDto>> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(executor.submit(() -> {
+                start.await();
+                return dispatcher.next(0);
+            }));
+        }
+        start.countDown();
+
+        // Las que llegan mientras el horno está reservado no reciben nada; el resto, la misma orden.
+        Set<Integer> assigned = ConcurrentHashMap.newKeySet();
+        for (Future<KitchenJobDto> request : requests) {
+            KitchenJobDto job = request.get(5, TimeUnit.SECONDS);
+            if (job != null) {
+                assigned.add(job.order().idOrder());
+            }
+        }
+        assertEquals(Set.of(1), assigned);
+        assertEquals(2, dispatcher.getQueueDepths().get("D"));
+        assertEquals(1, dispatcher.next(0).order().idOrder());
+    }
+
+    @Test
+    void completeOnlyReleasesTheOrderInProgress() {
+        KitchenDispatcher dispatcher = dispatcher(Duration.ofMinutes(2));
+        dispatcher.onOrdersSaved(new OrdersSavedEvent(List.of(order(1, "C"), order(2, "C"))));
+
+        assertFalse(dispatcher.complete(0, 1));
+        KitchenJobDto job = dispatcher.next(0);
+        assertEquals(1, job.order().idOrder());
+
+        assertFalse(dispatcher.complete(0, 2));
+        assertFalse(dispatcher.complete(1, 1));
+        assertTrue(dispatcher.complete(0, 1));
+        assertFalse(dispatcher.complete(0, 1));
+
+        assertEquals(2, dispatcher.next(0).order().idOrder());
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.next(STATIONS));
+    }
+
+    @Test
+    void deliveryGoesFirstUntilWaitingOrdersAge() throws Exception {
+        KitchenDispatcher patient = dispatcher(Duration.ofHours(1));
+        KitchenDispatcher aging = dispatcher(Duration.ofMillis(1));
+        for (KitchenDispatcher dispatcher : List.of(patient, aging)) {
+            dispatcher.onOrdersSaved(new OrdersSavedEvent(List.of(order(1, "S"))));
+        }
+        Thread.sleep(50);
+        for (KitchenDispatcher dispatcher : List.of(patient, aging)) {
+            dispatcher.onOrdersSaved(new OrdersSavedEvent(List.of(order(2, "D"))));
+        }
+
+        // Con un paso de una hora la espera no alcanza a compensar dos niveles de prioridad.
+        assertEquals(2, patient.next(0).order().idOrder());
+        // Con un paso de 1 ms, 50 ms de espera valen más que la diferencia entre S y D.
+        assertEquals(1, aging.next(0).order().idOrder());
+    }
+
+    @Test
+    void emptyQueuesLeaveTheStationFree() {
+        KitchenDispatcher dispatcher = dispatcher(Duration.ofMinutes(2));
+
+        assertNull(dispatcher.next(0));
+        dispatcher.onOrdersSaved(new OrdersSavedEvent(List.of(order(1, "S"))));
+        assertNotNull(dispatcher.next(0));
+    }
+
+    private static KitchenDispatcher dispatcher(Duration agingStep) {
+        return new KitchenDispatcher(mock(MenuCache.class), new SimpleMeterRegistry(), STATIONS,
+                agingStep, Duration.ofMinutes(6), Duration.ofMinutes(2));
+    }
+
+    private static OrderEntity order(int idOrder, String method) {
+        OrderEntity order = new OrderEntity();
+        order.setIdOrder(idOrder);
+        order.setIdCustomer("100001");
+        order.setMethod(method);
+        return order;
+    }
+}